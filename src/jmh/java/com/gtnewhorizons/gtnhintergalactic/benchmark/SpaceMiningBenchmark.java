@@ -0,0 +1,252 @@
+package com.gtnewhorizons.gtnhintergalactic.benchmark;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
+import net.minecraftforge.fluids.Fluid;
+import net.minecraftforge.fluids.FluidRegistry;
+import net.minecraftforge.fluids.FluidStack;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.gtnewhorizons.gtnhintergalactic.recipe.IG_SpaceMiningRecipe;
+import com.gtnewhorizons.gtnhintergalactic.recipe.SpaceMiningOreGenerator;
+import com.gtnewhorizons.gtnhintergalactic.recipe.SpaceMiningRandom;
+import com.gtnewhorizons.gtnhintergalactic.recipe.SpaceMiningRecipes.WeightedAsteroidList;
+import com.gtnewhorizons.gtnhintergalactic.tile.multi.elevatormodules.DroneAvailabilityTracker;
+import com.gtnewhorizons.gtnhintergalactic.tile.multi.elevatormodules.TileEntityModuleBase.ModuleInventorySnapshot;
+import com.gtnewhorizons.gtnhintergalactic.tile.multi.elevatormodules.TileEntityModuleMiner;
+
+import gregtech.api.recipe.check.CheckRecipeResult;
+
+/**
+ * Benchmarks of the space mining hot path. The recipe map of a module is replaced by pools of synthetic asteroids and
+ * the input busses by stand-in stacks, so no game or GregTech registries have to be loaded. Mining operations run
+ * through the real {@link TileEntityModuleMiner#process(ModuleInventorySnapshot, int, FluidStack, int)} of a stand-in
+ * module, so the results follow the code of each release.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SpaceMiningBenchmark {
+
+    /** Number of asteroids in the synthetic recipe map */
+    @Param({ "16", "64" })
+    public int asteroidCount;
+
+    /** Parallels of a mining operation */
+    @Param({ "1", "64" })
+    public int parallels;
+
+    /** Distances covered by the synthetic recipe map */
+    private static final int DISTANCES = 50;
+    /** Number of drone tiers of the synthetic asteroids */
+    private static final int DRONE_TIERS = 14;
+    /** Number of filler stacks in the stand-in input busses */
+    private static final int FILLER_STACKS = 32;
+
+    private List<IG_SpaceMiningRecipe> recipes;
+    private IG_SpaceMiningRecipe recipe;
+    private IG_SpaceMiningRecipe equalRecipe;
+    /** Pool of each distance, stand-in for the pool lookup of the recipe map */
+    private List<WeightedAsteroidList> poolsByDistance;
+    private WeightedAsteroidList pool;
+    private Random random;
+    /** Module whose mining operations are measured */
+    private StandInMiner miner;
+    /** Plasma of the module, refilled before every operation */
+    private FluidStack plasma;
+    /** Stand-in inputs, the second one differs by one filler stack so the drone counts change between them */
+    private ModuleInventorySnapshot[] inventories;
+    private ItemStack[][] inputStacks;
+    private DroneAvailabilityTracker droneTracker;
+    private int inventoryIndex;
+
+    @Setup
+    public void setup() {
+        Random setupRandom = new Random(42);
+        Item drone = new Item();
+        Item[] ores = new Item[32];
+        for (int i = 0; i < ores.length; i++) {
+            ores[i] = new Item();
+        }
+
+        recipes = new ArrayList<>(asteroidCount);
+        for (int i = 0; i < asteroidCount; i++) {
+            recipes.add(createRecipe(setupRandom, drone, ores, i));
+        }
+        recipe = recipes.get(0);
+        equalRecipe = createRecipe(new Random(42), drone, ores, 0);
+
+        poolsByDistance = new ArrayList<>(DISTANCES);
+        for (int d = 0; d < DISTANCES; d++) {
+            final int currentDistance = d;
+            poolsByDistance.add(
+                    new WeightedAsteroidList(
+                            recipes.stream().filter(
+                                    r -> r.minDistance <= currentDistance && r.maxDistance >= currentDistance)));
+        }
+        pool = new WeightedAsteroidList(recipes.stream());
+        random = new SpaceMiningRandom(42);
+
+        List<ItemStack> stacks = new ArrayList<>();
+        for (int tier = 0; tier < DRONE_TIERS; tier++) {
+            stacks.add(new ItemStack(drone, 1, tier));
+        }
+        for (int i = 0; i < FILLER_STACKS; i++) {
+            stacks.add(new ItemStack(ores[setupRandom.nextInt(ores.length)], 1 + setupRandom.nextInt(64), i));
+        }
+        List<ItemStack> changedStacks = new ArrayList<>(stacks);
+        changedStacks.set(changedStacks.size() - 1, new ItemStack(ores[0], 1, FILLER_STACKS));
+        inventories = new ModuleInventorySnapshot[] {
+                new ModuleInventorySnapshot(stacks, Collections.emptyList()),
+                new ModuleInventorySnapshot(changedStacks, Collections.emptyList()) };
+        inputStacks = new ItemStack[][] { inventories[0].getItems(), inventories[1].getItems() };
+        droneTracker = new DroneAvailabilityTracker();
+
+        Fluid plasmaFluid = new Fluid("benchmark_plasma");
+        FluidRegistry.registerFluid(plasmaFluid);
+        plasma = new FluidStack(plasmaFluid, Integer.MAX_VALUE);
+        miner = new StandInMiner(poolsByDistance);
+    }
+
+    private static IG_SpaceMiningRecipe createRecipe(Random random, Item drone, Item[] ores, int index) {
+        int outputCount = 1 + random.nextInt(6);
+        ItemStack[] outputs = new ItemStack[outputCount];
+        int[] chances = new int[outputCount];
+        for (int i = 0; i < outputCount; i++) {
+            outputs[i] = new ItemStack(ores[random.nextInt(ores.length)], 64, random.nextInt(16));
+            chances[i] = 1000 + random.nextInt(5000);
+        }
+        int minDistance = random.nextInt(DISTANCES);
+        return new IG_SpaceMiningRecipe(
+                false,
+                "benchmark" + index,
+                new ItemStack[] { new ItemStack(drone, 0, random.nextInt(14)) },
+                outputs,
+                null,
+                chances,
+                20 * (10 + random.nextInt(50)),
+                30_000,
+                100,
+                1,
+                minDistance,
+                Math.min(DISTANCES - 1, minDistance + random.nextInt(20)),
+                10 + random.nextInt(10),
+                20 + random.nextInt(20),
+                1 + random.nextInt(100));
+    }
+
+    @Benchmark
+    public WeightedAsteroidList buildAsteroidList() {
+        return new WeightedAsteroidList(recipes.stream());
+    }
+
+    @Benchmark
+    public IG_SpaceMiningRecipe sampleAsteroid() {
+        return pool.getRandom(random);
+    }
+
+    @Benchmark
+    public int recipeHashCode() {
+        return recipe.hashCode();
+    }
+
+    @Benchmark
+    public boolean recipeEquals() {
+        return recipe.equals(equalRecipe);
+    }
+
+    @Benchmark
+    public long[] generateOres() {
+        return SpaceMiningOreGenerator.generateStacks(recipe, parallels, 6000, random);
+    }
+
+    /**
+     * One recipe check of a mining module with a batch size of one: draw an asteroid from the pool of the next
+     * distance, generate its ores and set up the outputs
+     */
+    @Benchmark
+    public CheckRecipeResult miningOperation() {
+        plasma.amount = Integer.MAX_VALUE;
+        return miner.process(inventories[0], 1, plasma, parallels);
+    }
+
+    /**
+     * Available drones of a module whose inputs didn't change since the last check
+     */
+    @Benchmark
+    public int droneMaskUnchanged() {
+        return miner.getDroneMask(inventories[0]);
+    }
+
+    /**
+     * Available drones of a module whose inputs changed since the last check, so the snapshot is counted again
+     */
+    @Benchmark
+    public int droneMaskChanged() {
+        inventoryIndex ^= 1;
+        return miner.getDroneMask(inventories[inventoryIndex]);
+    }
+
+    /**
+     * Available drones counted from the stacks, like the further operations of a batch do it
+     */
+    @Benchmark
+    public int droneMaskFromStacks() {
+        inventoryIndex ^= 1;
+        return droneTracker.update(inputStacks[inventoryIndex]);
+    }
+
+    /**
+     * Mining module that gets its asteroid pools from the synthetic recipe map, all other parts are the real module
+     */
+    private static class StandInMiner extends TileEntityModuleMiner.TileEntityModuleMinerT1 {
+
+        /** Pools with their compiled ore filters, handed out one distance after the other */
+        private final List<CachedAsteroidPool> pools = new ArrayList<>();
+        private int nextPool;
+
+        private StandInMiner(List<WeightedAsteroidList> poolsByDistance) {
+            super("benchmark.miner");
+            for (WeightedAsteroidList distancePool : poolsByDistance) {
+                pools.add(new CachedAsteroidPool(distancePool, compileOreFilter(distancePool)));
+            }
+        }
+
+        @Override
+        protected CachedAsteroidPool getAsteroidPool(ItemStack[] inputs, FluidStack[] fluidInputs, long voltage,
+                int distance, int availDroneMask) {
+            CachedAsteroidPool distancePool = pools.get(nextPool);
+            nextPool = (nextPool + 1) % pools.size();
+            return distancePool;
+        }
+
+        @Override
+        public long getAvailableData_EM() {
+            return Long.MAX_VALUE;
+        }
+
+        private int getDroneMask(ModuleInventorySnapshot inventory) {
+            return getAvailDroneMask(inventory);
+        }
+    }
+}
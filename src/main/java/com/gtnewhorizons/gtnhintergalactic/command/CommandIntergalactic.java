@@ -0,0 +1,66 @@
+package com.gtnewhorizons.gtnhintergalactic.command;
+
+import java.util.List;
+
+import net.minecraft.command.CommandBase;
+import net.minecraft.command.ICommandSender;
+import net.minecraft.command.WrongUsageException;
+import net.minecraft.util.ChatComponentTranslation;
+import net.minecraft.util.EnumChatFormatting;
+
+import com.gtnewhorizons.gtnhintergalactic.recipe.RecipeTableFiles;
+
+/**
+ * Server command of GTNH-Intergalactic. {@code /intergalactic reload} loads the siphon and pump recipe files again
+ */
+public class CommandIntergalactic extends CommandBase {
+
+    /** Sub command that reloads the recipe files */
+    private static final String RELOAD = "reload";
+
+    @Override
+    public String getCommandName() {
+        return "intergalactic";
+    }
+
+    @Override
+    public String getCommandUsage(ICommandSender sender) {
+        return "ig.command.usage";
+    }
+
+    @Override
+    public int getRequiredPermissionLevel() {
+        return 2;
+    }
+
+    @Override
+    public void processCommand(ICommandSender sender, String[] args) {
+        if (args.length != 1 || !RELOAD.equals(args[0])) {
+            throw new WrongUsageException(getCommandUsage(sender));
+        }
+        RecipeTableFiles.LoadResult result = RecipeTableFiles.loadRecipes();
+        if (result.failedFiles.isEmpty()) {
+            sender.addChatMessage(
+                    new ChatComponentTranslation(
+                            "ig.command.reload.success",
+                            result.siphonRecipes,
+                            result.pumpRecipes,
+                            result.skippedEntries));
+        } else {
+            // one message, so a partly failed reload isn't reported as a success
+            ChatComponentTranslation failure = new ChatComponentTranslation(
+                    "ig.command.reload.failed",
+                    String.join(", ", result.failedFiles),
+                    result.siphonRecipes,
+                    result.pumpRecipes,
+                    result.skippedEntries);
+            failure.getChatStyle().setColor(EnumChatFormatting.RED);
+            sender.addChatMessage(failure);
+        }
+    }
+
+    @Override
+    public List<String> addTabCompletionOptions(ICommandSender sender, String[] args) {
+        return args.length == 1 ? getListOfStringsMatchingLastWord(args, RELOAD) : null;
+    }
+}
@@ -8,6 +8,9 @@ import gregtech.api.enums.Mods;
 public class IGConfig {
 
     public static SpaceElevator spaceElevator = new SpaceElevator();
+    public static SpaceMining spaceMining = new SpaceMining();
+    public static SpacePump spacePump = new SpacePump();
+    public static GasSiphon gasSiphon = new GasSiphon();
 
     @Config.Comment("Space Elevator section")
     public static class SpaceElevator {
@@ -16,4 +19,40 @@ public class IGConfig {
         @Config.DefaultBoolean(true)
         public boolean isCableRenderingEnabled;
     }
+
+    @Config.Comment("Space Mining section")
+    public static class SpaceMining {
+
+        @Config.Comment("Debug option for benchmarking. If not 0, all mining modules derive their random numbers from "
+                + "this seed and their position and restart their operation counter when loaded, so the same inputs "
+                + "reproduce the exact same sequence of mining operations")
+        @Config.DefaultInt(0)
+        public int replaySeed;
+
+        @Config.Comment("Additional plasmas for the mining modules, one per line in the form "
+                + "fluidName,tier,usage,timeModifier,bonusStackChance. Tiers 1 to 3 are helium, bismuth and radon "
+                + "plasma, an entry with one of these tiers replaces the default plasma")
+        @Config.DefaultStringList({})
+        public String[] additionalPlasmas;
+    }
+
+    @Config.Comment("Space Pump section")
+    public static class SpacePump {
+
+        @Config.Comment("Additional recipes for the pump modules, one per line in the form "
+                + "planetType,gasType,fluidName,amount. An entry for an existing planet and gas type replaces the "
+                + "recipe of config/gtnhintergalactic/pump_recipes.json")
+        @Config.DefaultStringList({})
+        public String[] additionalRecipes;
+    }
+
+    @Config.Comment("Gas Siphon section")
+    public static class GasSiphon {
+
+        @Config.Comment("Seconds of gas that a siphon in batch mode produces per recipe check, if the output hatch can "
+                + "take all of it")
+        @Config.DefaultInt(10)
+        @Config.RangeInt(min = 1, max = 3600)
+        public int batchSeconds;
+    }
 }
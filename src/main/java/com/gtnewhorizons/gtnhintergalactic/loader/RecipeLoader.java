@@ -1,8 +1,7 @@
 package com.gtnewhorizons.gtnhintergalactic.loader;
 
-import com.gtnewhorizons.gtnhintergalactic.recipe.GasSiphonRecipes;
+import com.gtnewhorizons.gtnhintergalactic.recipe.RecipeTableFiles;
 import com.gtnewhorizons.gtnhintergalactic.recipe.SpaceMiningRecipes;
-import com.gtnewhorizons.gtnhintergalactic.recipe.SpacePumpingRecipes;
 
 /**
  * Loader for all recipes
@@ -17,7 +16,6 @@ public class RecipeLoader implements Runnable {
     @Override
     public void run() {
         SpaceMiningRecipes.addAsteroids();
-        SpacePumpingRecipes.addPumpingRecipes();
-        GasSiphonRecipes.addPumpingRecipes();
+        RecipeTableFiles.loadRecipes();
     }
 }
@@ -1,7 +1,6 @@
 package com.gtnewhorizons.gtnhintergalactic.nei;
 
 import java.awt.Rectangle;
-import java.util.Map;
 
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.resources.I18n;
@@ -116,15 +115,13 @@ public class GasSiphonRecipeHandler extends TemplateRecipeHandler {
     @Override
     public void loadCraftingRecipes(String outputId, Object... results) {
         if (outputId.equals(getOutputId())) {
-            for (Map.Entry<String, Map<Integer, FluidStack>> entry : GasSiphonRecipes.RECIPES.entrySet()) {
-                for (Map.Entry<Integer, FluidStack> innerEntry : entry.getValue().entrySet()) {
-                    arecipes.add(
-                            new CachedSiphonRecipe(
-                                    entry.getKey(),
-                                    innerEntry.getKey(),
-                                    innerEntry.getValue().getFluid(),
-                                    innerEntry.getValue().amount));
-                }
+            for (GasSiphonRecipes.SiphonRecipe recipe : GasSiphonRecipes.getRecipes()) {
+                arecipes.add(
+                        new CachedSiphonRecipe(
+                                recipe.planet,
+                                recipe.depth,
+                                recipe.fluid.getFluid(),
+                                recipe.fluid.amount));
             }
         } else {
             super.loadCraftingRecipes(outputId, results);
@@ -178,16 +175,9 @@ public class GasSiphonRecipeHandler extends TemplateRecipeHandler {
         }
         if (fluid == null) return;
 
-        for (Map.Entry<String, Map<Integer, FluidStack>> entry : GasSiphonRecipes.RECIPES.entrySet()) {
-            for (Map.Entry<Integer, FluidStack> innerEntry : entry.getValue().entrySet()) {
-                if (innerEntry.getValue().isFluidEqual(new FluidStack(fluid, 0))) {
-                    arecipes.add(
-                            new CachedSiphonRecipe(
-                                    entry.getKey(),
-                                    innerEntry.getKey(),
-                                    fluid,
-                                    innerEntry.getValue().amount));
-                }
+        for (GasSiphonRecipes.SiphonRecipe recipe : GasSiphonRecipes.getRecipes()) {
+            if (recipe.fluid.getFluid() == fluid) {
+                arecipes.add(new CachedSiphonRecipe(recipe.planet, recipe.depth, fluid, recipe.fluid.amount));
             }
         }
     }
@@ -1,7 +1,6 @@
 package com.gtnewhorizons.gtnhintergalactic.nei;
 
 import java.awt.Rectangle;
-import java.util.Map;
 
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.resources.I18n;
@@ -10,8 +9,6 @@ import net.minecraft.util.EnumChatFormatting;
 import net.minecraftforge.fluids.Fluid;
 import net.minecraftforge.fluids.FluidStack;
 
-import org.apache.commons.lang3.tuple.Pair;
-
 import com.gtnewhorizons.gtnhintergalactic.gui.IG_UITextures;
 import com.gtnewhorizons.gtnhintergalactic.recipe.SpacePumpingRecipes;
 import com.gtnewhorizons.modularui.api.GlStateManager;
@@ -117,13 +114,13 @@ public class SpacePumpModuleRecipeHandler extends TemplateRecipeHandler {
     @Override
     public void loadCraftingRecipes(String outputId, Object... results) {
         if (outputId.equals(getOutputId())) {
-            for (Map.Entry<Pair<Integer, Integer>, FluidStack> entry : SpacePumpingRecipes.RECIPES.entrySet()) {
+            for (SpacePumpingRecipes.PumpingRecipe recipe : SpacePumpingRecipes.getRecipes()) {
                 arecipes.add(
                         new CachedPumpRecipe(
-                                entry.getKey().getLeft(),
-                                entry.getKey().getRight(),
-                                entry.getValue().getFluid(),
-                                entry.getValue().amount));
+                                recipe.planetType,
+                                recipe.gasType,
+                                recipe.fluid.getFluid(),
+                                recipe.fluid.amount));
             }
         } else {
             super.loadCraftingRecipes(outputId, results);
@@ -177,15 +174,8 @@ public class SpacePumpModuleRecipeHandler extends TemplateRecipeHandler {
         }
         if (fluid == null) return;
 
-        for (Map.Entry<Pair<Integer, Integer>, FluidStack> entry : SpacePumpingRecipes.RECIPES.entrySet()) {
-            if (entry.getValue().isFluidEqual(new FluidStack(fluid, 0))) {
-                arecipes.add(
-                        new CachedPumpRecipe(
-                                entry.getKey().getLeft(),
-                                entry.getKey().getRight(),
-                                fluid,
-                                entry.getValue().amount));
-            }
+        for (SpacePumpingRecipes.PumpingRecipe recipe : SpacePumpingRecipes.getRecipesProducing(fluid)) {
+            arecipes.add(new CachedPumpRecipe(recipe.planetType, recipe.gasType, fluid, recipe.fluid.amount));
         }
     }
 
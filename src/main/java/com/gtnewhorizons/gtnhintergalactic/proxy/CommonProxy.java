@@ -3,6 +3,7 @@ package com.gtnewhorizons.gtnhintergalactic.proxy;
 import net.minecraft.util.IIcon;
 
 import com.gtnewhorizons.gtnhintergalactic.block.IGBlocks;
+import com.gtnewhorizons.gtnhintergalactic.command.CommandIntergalactic;
 import com.gtnewhorizons.gtnhintergalactic.item.IGItems;
 import com.gtnewhorizons.gtnhintergalactic.loader.MachineLoader;
 import com.gtnewhorizons.gtnhintergalactic.loader.RecipeLoader;
@@ -15,6 +16,7 @@ import com.gtnewhorizons.gtnhintergalactic.tile.TileEntitySpaceElevatorCable;
 import cpw.mods.fml.common.event.FMLInitializationEvent;
 import cpw.mods.fml.common.event.FMLPostInitializationEvent;
 import cpw.mods.fml.common.event.FMLPreInitializationEvent;
+import cpw.mods.fml.common.event.FMLServerStartingEvent;
 import cpw.mods.fml.common.registry.GameRegistry;
 import gregtech.api.enums.Textures;
 import gregtech.api.interfaces.ITexture;
@@ -52,6 +54,15 @@ public class CommonProxy {
         IG_RecipeAdder.postInit();
     }
 
+    /**
+     * Register the server commands
+     *
+     * @param event Server starting event
+     */
+    public void serverStarting(FMLServerStartingEvent event) {
+        event.registerServerCommand(new CommandIntergalactic());
+    }
+
     /**
      * Mark a texture as used, to prevent hodgepodge from optimizing it
      *
@@ -0,0 +1,234 @@
+package com.gtnewhorizons.gtnhintergalactic.recipe;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.IntUnaryOperator;
+
+import net.minecraft.item.ItemStack;
+
+import com.gtnewhorizons.gtnhintergalactic.recipe.SpaceMiningRecipes.WeightedAsteroidList;
+
+import gregtech.api.enums.GTValues;
+import gregtech.api.util.GTUtility;
+
+/**
+ * Computes the exact expected ore output of a space mining module from its configuration, without simulating any
+ * operation. Over a long run every visited distance is mined equally often and every asteroid of a pool is drawn with
+ * its weight, so the expected output per second is the expected ore per operation divided by the expected duration
+ * of an operation.
+ * <p>
+ * The calculation assumes that power, plasma, drills and rods don't run out. Operations that can't start (no asteroid
+ * at a distance, not enough computation or voltage for the drawn asteroid) are assumed to take no time.
+ */
+public class AsteroidYieldCalculator {
+
+    /** Tier of the mining module */
+    protected final int moduleTier;
+    /** Voltage tier of the mining module, limits the parallels */
+    protected final int voltageTier;
+    /** Max input voltage of the mining module, limits the usable asteroids */
+    protected final long maxInputVoltage;
+    /** Bitmask of available drone tiers */
+    protected int droneMask;
+    /** Base distance of the module */
+    protected int distance;
+    /** Range around the base distance that is cycled through, 0 if the module doesn't cycle */
+    protected int range;
+    /** Step in which the range is cycled */
+    protected int step;
+    /** Maximum number of parallels */
+    protected int maxParallels = 1;
+    /** Available computation, already divided by any computation discount */
+    protected double computation = Double.MAX_VALUE;
+    /** Chance out of 10000 to get each bonus stack */
+    protected int bonusStackChance;
+    /** Maps the unboosted recipe time to the actual recipe time in ticks */
+    protected IntUnaryOperator recipeTime = IntUnaryOperator.identity();
+    /** Compiles the ore filter for a pool, null if every ore is kept */
+    protected Function<WeightedAsteroidList, long[]> oreFilter;
+
+    /**
+     * Create a new yield calculator
+     *
+     * @param moduleTier      Tier of the mining module
+     * @param voltageTier     Voltage tier of the mining module
+     * @param maxInputVoltage Max input voltage of the mining module
+     */
+    public AsteroidYieldCalculator(int moduleTier, int voltageTier, long maxInputVoltage) {
+        this.moduleTier = moduleTier;
+        this.voltageTier = voltageTier;
+        this.maxInputVoltage = maxInputVoltage;
+    }
+
+    /**
+     * @param droneMask Bitmask of the drone tiers for which drone, drill and rod are available
+     * @return this
+     */
+    public AsteroidYieldCalculator setDroneMask(int droneMask) {
+        this.droneMask = droneMask;
+        return this;
+    }
+
+    /**
+     * @param distance Base distance of the module
+     * @param range    Range around the distance that is cycled through, 0 if the distance is static
+     * @param step     Step in which the range is cycled
+     * @return this
+     */
+    public AsteroidYieldCalculator setDistance(int distance, int range, int step) {
+        this.distance = distance;
+        this.range = range;
+        this.step = step;
+        return this;
+    }
+
+    /**
+     * @param maxParallels Maximum number of parallels of the module
+     * @param computation  Available computation, already divided by any computation discount
+     * @return this
+     */
+    public AsteroidYieldCalculator setParallels(int maxParallels, double computation) {
+        this.maxParallels = maxParallels;
+        this.computation = computation;
+        return this;
+    }
+
+    /**
+     * @param bonusStackChance Chance out of 10000 to get each stack between minSize and maxSize
+     * @param recipeTime       Maps the unboosted recipe time to the actual recipe time in ticks
+     * @return this
+     */
+    public AsteroidYieldCalculator setPlasmaBonus(int bonusStackChance, IntUnaryOperator recipeTime) {
+        this.bonusStackChance = bonusStackChance;
+        this.recipeTime = recipeTime;
+        return this;
+    }
+
+    /**
+     * @param oreFilter Compiles the allowed outputs of each recipe of a pool, or null if every ore is kept
+     * @return this
+     */
+    public AsteroidYieldCalculator setOreFilter(Function<WeightedAsteroidList, long[]> oreFilter) {
+        this.oreFilter = oreFilter;
+        return this;
+    }
+
+    /**
+     * Calculate the expected yield of the configured module
+     *
+     * @return Expected yield
+     */
+    public Yield calculate() {
+        int minDistance;
+        int maxDistance;
+        int distanceStep;
+        if (range > 0 && step > 0) {
+            minDistance = Math.max(0, distance - range);
+            maxDistance = Math.min(SpaceMiningPoolIndex.MAX_DISTANCE, distance + range);
+            distanceStep = step;
+        } else {
+            minDistance = maxDistance = Math.min(SpaceMiningPoolIndex.MAX_DISTANCE, Math.max(0, distance));
+            distanceStep = 1;
+        }
+
+        long voltage = GTValues.V[Math.max(0, Math.min(voltageTier, GTValues.V.length - 1))];
+        double bonusChance = Math.min(Math.max(bonusStackChance, 0), 10000) / 10000D;
+        Map<GTUtility.ItemId, Double> items = new HashMap<>();
+        // Pools are shared between distances, so every filter only has to be compiled once
+        Map<WeightedAsteroidList, long[]> filters = new IdentityHashMap<>();
+        double ticks = 0D;
+        int operations = 0;
+        // Every distance of the cycle is visited once per cycle
+        for (int d = minDistance; d <= maxDistance; d += distanceStep) {
+            operations++;
+            WeightedAsteroidList pool = SpaceMiningPoolIndex.getPool(d, moduleTier, maxInputVoltage, droneMask);
+            if (pool.totalWeight <= 0) {
+                continue;
+            }
+            long[] allowedOutputs = oreFilter == null ? null : filters.computeIfAbsent(pool, oreFilter);
+            for (int i = 0; i < pool.recipes.size(); i++) {
+                IG_SpaceMiningRecipe recipe = pool.recipes.get(i);
+                double chance = (double) recipe.recipeWeight / pool.totalWeight;
+                int parallels = getParallels(recipe, voltage);
+                if (chance <= 0D || parallels <= 0) {
+                    continue;
+                }
+                ticks += chance * recipeTime.applyAsInt(recipe.mDuration);
+
+                double stacks = parallels * (recipe.minSize + (recipe.maxSize - recipe.minSize) * bonusChance);
+                int outputCount = Math.min(recipe.mOutputs.length, recipe.mChances.length);
+                long totalChance = 0;
+                for (int j = 0; j < outputCount; j++) {
+                    totalChance += Math.max(recipe.mChances[j], 0);
+                }
+                for (int j = 0; j < outputCount && totalChance > 0; j++) {
+                    ItemStack ore = recipe.mOutputs[j];
+                    if (ore == null || (allowedOutputs != null
+                            && !SpaceMiningOreGenerator.isOutputAllowed(allowedOutputs[i], j))) {
+                        continue;
+                    }
+                    double amount = chance * stacks
+                            * Math.max(recipe.mChances[j], 0)
+                            / totalChance
+                            * ore.stackSize;
+                    items.merge(GTUtility.ItemId.createNoCopy(ore), amount, Double::sum);
+                }
+            }
+        }
+
+        if (ticks <= 0D) {
+            return Yield.NONE;
+        }
+        // Both sums are over the same cycle, so the number of operations cancels out
+        double seconds = ticks / 20D;
+        items.replaceAll((item, amount) -> amount / seconds);
+        return new Yield(items, operations / seconds);
+    }
+
+    /**
+     * Get the number of parallels that a recipe runs with, limited by the settings, computation and voltage
+     *
+     * @param recipe  Mined asteroid
+     * @param voltage Voltage of the module
+     * @return Number of parallels
+     */
+    protected int getParallels(IG_SpaceMiningRecipe recipe, long voltage) {
+        int parallels = maxParallels;
+        if (recipe.computation > 0) {
+            parallels = (int) Math.min(parallels, computation / recipe.computation);
+        }
+        if (recipe.mEUt > 0) {
+            parallels = (int) Math.min(parallels, voltage / recipe.mEUt);
+        }
+        return parallels;
+    }
+
+    /**
+     * Expected output of a mining module
+     */
+    public static class Yield {
+
+        /** Yield of a module that can't mine anything */
+        public static final Yield NONE = new Yield(Collections.emptyMap(), 0D);
+
+        /** Expected number of items per second for each mined item */
+        public final Map<GTUtility.ItemId, Double> itemsPerSecond;
+        /** Expected number of started operations per second */
+        public final double operationsPerSecond;
+        /** Expected number of all items per second */
+        public final double totalItemsPerSecond;
+
+        public Yield(Map<GTUtility.ItemId, Double> itemsPerSecond, double operationsPerSecond) {
+            this.itemsPerSecond = Collections.unmodifiableMap(itemsPerSecond);
+            this.operationsPerSecond = operationsPerSecond;
+            double total = 0D;
+            for (double amount : itemsPerSecond.values()) {
+                total += amount;
+            }
+            this.totalItemsPerSecond = total;
+        }
+    }
+}
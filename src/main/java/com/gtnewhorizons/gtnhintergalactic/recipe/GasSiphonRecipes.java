@@ -1,62 +1,267 @@
 package com.gtnewhorizons.gtnhintergalactic.recipe;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import net.minecraftforge.fluids.FluidStack;
 
+import com.gtnewhorizons.gtnhintergalactic.GTNHIntergalactic;
+
 import bartworks.system.material.WerkstoffLoader;
 import cpw.mods.fml.common.Loader;
 import galaxyspace.SolarSystem.SolarSystemPlanets;
 import gregtech.api.enums.Materials;
 
 /**
- * Available fluids for the Gas Siphon are defined here
+ * Available fluids for the Gas Siphon are defined here. The fluids of each planet are stored in a dense array indexed
+ * by depth. Every change of the recipes raises the recipe version, so siphons know when to resolve their recipe again
  *
  * @author glowredman
  */
 public class GasSiphonRecipes {
 
-    public static final Map<String, Map<Integer, FluidStack>> RECIPES = new HashMap<>();
+    /** Pumped fluid by planet and [depth], null if the depth has no recipe */
+    private static Map<String, FluidStack[]> table = new HashMap<>();
+    /** Pumped fluid by planet and depth, backing the inner maps of {@link #RECIPES} */
+    private static Map<String, Map<Integer, FluidStack>> fluidsByDepth = new HashMap<>();
+    /** Backing map of {@link #RECIPES}, holding read-only views of the maps by depth */
+    private static Map<String, Map<Integer, FluidStack>> recipeMap = new HashMap<>();
+    /** Version of the recipes, raised on every change */
+    private static volatile int version = 0;
+
+    /**
+     * Read-only view of all siphon recipes. Replacing all recipes publishes a new view instead of emptying this one
+     *
+     * @deprecated Use {@link #getRecipe(String, int)} or {@link #getRecipes()} for lookups and
+     *             {@link #addSiphonRecipe(String, int, FluidStack)} to add recipes
+     */
+    @Deprecated
+    public static volatile Map<String, Map<Integer, FluidStack>> RECIPES = Collections.unmodifiableMap(recipeMap);
 
     /**
      * Add all pumping recipes to the siphon
      */
     public static void addPumpingRecipes() {
+        for (SiphonRecipe recipe : getDefaultRecipes()) {
+            addSiphonRecipe(recipe.planet, recipe.depth, recipe.fluid);
+        }
+    }
+
+    /**
+     * Get the default recipes of the siphon without adding them
+     *
+     * @return Default recipes, the fluid of a recipe is null if its fluid doesn't exist
+     */
+    public static List<SiphonRecipe> getDefaultRecipes() {
+        List<SiphonRecipe> recipes = new ArrayList<>();
+        String jupiter = SolarSystemPlanets.planetJupiter.getUnlocalizedName();
+        String saturn = SolarSystemPlanets.planetSaturn.getUnlocalizedName();
+        String uranus = SolarSystemPlanets.planetUranus.getUnlocalizedName();
+        String neptune = SolarSystemPlanets.planetNeptune.getUnlocalizedName();
+
         // T3 (-> 0.5 to 2A of EV)
-        Map<Integer, FluidStack> jupiterRecipes = new HashMap<>();
-        jupiterRecipes.put(1, Materials.Hydrogen.getGas(15000));
-        jupiterRecipes.put(2, Materials.Helium.getGas(500));
-        jupiterRecipes.put(3, Materials.Nitrogen.getGas(300));
-        jupiterRecipes.put(4, Materials.Oxygen.getGas(200));
+        recipes.add(new SiphonRecipe(jupiter, 1, Materials.Hydrogen.getGas(15000)));
+        recipes.add(new SiphonRecipe(jupiter, 2, Materials.Helium.getGas(500)));
+        recipes.add(new SiphonRecipe(jupiter, 3, Materials.Nitrogen.getGas(300)));
+        recipes.add(new SiphonRecipe(jupiter, 4, Materials.Oxygen.getGas(200)));
 
         // T5 (-> 0.5 to 2A of LuV)
-        Map<Integer, FluidStack> saturnRecipes = new HashMap<>();
-        saturnRecipes.put(1, Materials.Hydrogen.getGas(18000));
-        saturnRecipes.put(2, Materials.Helium.getGas(800));
-        saturnRecipes.put(3, Materials.Oxygen.getGas(500));
-        saturnRecipes.put(4, Materials.LiquidOxygen.getGas(150));
+        recipes.add(new SiphonRecipe(saturn, 1, Materials.Hydrogen.getGas(18000)));
+        recipes.add(new SiphonRecipe(saturn, 2, Materials.Helium.getGas(800)));
+        recipes.add(new SiphonRecipe(saturn, 3, Materials.Oxygen.getGas(500)));
+        recipes.add(new SiphonRecipe(saturn, 4, Materials.LiquidOxygen.getGas(150)));
 
         // T5 (-> 0.5 to 2A of LuV)
-        Map<Integer, FluidStack> uranusRecipes = new HashMap<>();
-        uranusRecipes.put(1, Materials.Deuterium.getGas(5000));
-        uranusRecipes.put(3, Materials.Argon.getGas(250));
+        recipes.add(new SiphonRecipe(uranus, 1, Materials.Deuterium.getGas(5000)));
+        recipes.add(new SiphonRecipe(uranus, 3, Materials.Argon.getGas(250)));
 
         // T6 (-> 0.5 to 2A of ZPM)
-        Map<Integer, FluidStack> neptuneRecipes = new HashMap<>();
-        neptuneRecipes.put(1, Materials.Tritium.getGas(3000));
-        neptuneRecipes.put(2, Materials.Helium_3.getGas(500));
-        neptuneRecipes.put(3, Materials.Ammonia.getGas(400));
+        recipes.add(new SiphonRecipe(neptune, 1, Materials.Tritium.getGas(3000)));
+        recipes.add(new SiphonRecipe(neptune, 2, Materials.Helium_3.getGas(500)));
+        recipes.add(new SiphonRecipe(neptune, 3, Materials.Ammonia.getGas(400)));
 
         if (Loader.isModLoaded("bartworks")) {
-            uranusRecipes.put(2, WerkstoffLoader.Neon.getFluidOrGas(450));
-            uranusRecipes.put(4, WerkstoffLoader.Krypton.getFluidOrGas(100));
-            neptuneRecipes.put(4, WerkstoffLoader.Xenon.getFluidOrGas(350));
+            recipes.add(new SiphonRecipe(uranus, 2, WerkstoffLoader.Neon.getFluidOrGas(450)));
+            recipes.add(new SiphonRecipe(uranus, 4, WerkstoffLoader.Krypton.getFluidOrGas(100)));
+            recipes.add(new SiphonRecipe(neptune, 4, WerkstoffLoader.Xenon.getFluidOrGas(350)));
+        }
+        return recipes;
+    }
+
+    /**
+     * Add a siphon recipe. A recipe for an already used planet and depth replaces the old recipe
+     *
+     * @param planet Unlocalized name of the orbited planet
+     * @param depth  Pumping depth, at least 1
+     * @param fluid  Fluid that is pumped per second without overclocks
+     * @return True if the recipe was added, false if the fluid doesn't exist
+     */
+    public static synchronized boolean addSiphonRecipe(String planet, int depth, FluidStack fluid) {
+        if (!isValidRecipe(planet, depth, fluid)) {
+            return false;
+        }
+        putRecipe(table, fluidsByDepth, recipeMap, planet, depth, fluid.copy());
+        version++;
+        return true;
+    }
+
+    /**
+     * Replace all siphon recipes at once. The new recipes are collected first and then swapped in, so siphons never
+     * see a partly loaded table. Invalid recipes are skipped, later recipes replace earlier ones for the same planet
+     * and depth
+     *
+     * @param recipes New recipes
+     * @return Number of recipes that were skipped
+     */
+    public static int replaceRecipes(List<SiphonRecipe> recipes) {
+        Map<String, FluidStack[]> newTable = new HashMap<>();
+        Map<String, Map<Integer, FluidStack>> newFluidsByDepth = new HashMap<>();
+        Map<String, Map<Integer, FluidStack>> newRecipeMap = new HashMap<>();
+        int skipped = 0;
+        for (SiphonRecipe recipe : recipes) {
+            if (isValidRecipe(recipe.planet, recipe.depth, recipe.fluid)) {
+                putRecipe(newTable, newFluidsByDepth, newRecipeMap, recipe.planet, recipe.depth, recipe.fluid.copy());
+            } else {
+                skipped++;
+            }
+        }
+        synchronized (GasSiphonRecipes.class) {
+            table = newTable;
+            fluidsByDepth = newFluidsByDepth;
+            recipeMap = newRecipeMap;
+            RECIPES = Collections.unmodifiableMap(newRecipeMap);
+            version++;
+        }
+        return skipped;
+    }
+
+    /**
+     * Remove all siphon recipes
+     */
+    public static void clearRecipes() {
+        replaceRecipes(Collections.emptyList());
+    }
+
+    /**
+     * Check the planet, depth and fluid of a recipe
+     *
+     * @param planet Unlocalized name of the orbited planet
+     * @param depth  Pumping depth
+     * @param fluid  Pumped fluid
+     * @return True if the recipe can be added, false if the fluid doesn't exist
+     */
+    private static boolean isValidRecipe(String planet, int depth, FluidStack fluid) {
+        if (planet == null || depth <= 0) {
+            throw new IllegalArgumentException("Siphon recipe needs a planet and a positive depth, got " + depth);
         }
+        if (fluid == null || fluid.getFluid() == null || fluid.amount <= 0) {
+            GTNHIntergalactic.LOG
+                    .warn("Ignoring siphon recipe for planet {} and depth {}, its fluid is missing", planet, depth);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Put a recipe into a set of recipe tables, replacing the recipe of the same planet and depth
+     *
+     * @param table         Pumped fluid by planet and [depth]
+     * @param fluidsByDepth Pumped fluid by planet and depth
+     * @param recipeMap     Read-only views of the maps by depth
+     * @param planet        Unlocalized name of the orbited planet
+     * @param depth         Pumping depth
+     * @param fluid         Pumped fluid, which is stored as it is
+     */
+    private static void putRecipe(Map<String, FluidStack[]> table,
+            Map<String, Map<Integer, FluidStack>> fluidsByDepth, Map<String, Map<Integer, FluidStack>> recipeMap,
+            String planet, int depth, FluidStack fluid) {
+        FluidStack[] fluids = table.get(planet);
+        if (fluids == null || depth >= fluids.length) {
+            fluids = fluids == null ? new FluidStack[depth + 1] : Arrays.copyOf(fluids, depth + 1);
+            table.put(planet, fluids);
+        }
+        fluids[depth] = fluid;
+        Map<Integer, FluidStack> planetFluids = fluidsByDepth.get(planet);
+        if (planetFluids == null) {
+            planetFluids = new HashMap<>();
+            fluidsByDepth.put(planet, planetFluids);
+            recipeMap.put(planet, Collections.unmodifiableMap(planetFluids));
+        }
+        planetFluids.put(depth, fluid);
+    }
+
+    /**
+     * Get the fluid that is pumped on a planet at a depth
+     *
+     * @param planet Unlocalized name of the orbited planet
+     * @param depth  Pumping depth
+     * @return Pumped fluid without overclocks, which must not be modified, or null if there is no recipe
+     */
+    public static synchronized FluidStack getRecipe(String planet, int depth) {
+        FluidStack[] fluids = table.get(planet);
+        return fluids != null && depth >= 0 && depth < fluids.length ? fluids[depth] : null;
+    }
+
+    /**
+     * @param planet Unlocalized name of the orbited planet
+     * @return True if the siphon has recipes for the planet
+     */
+    public static synchronized boolean hasRecipes(String planet) {
+        return table.containsKey(planet);
+    }
+
+    /**
+     * @return All siphon recipes, sorted by planet and depth
+     */
+    public static synchronized List<SiphonRecipe> getRecipes() {
+        List<String> planets = new ArrayList<>(table.keySet());
+        Collections.sort(planets);
+        List<SiphonRecipe> recipes = new ArrayList<>();
+        for (String planet : planets) {
+            FluidStack[] fluids = table.get(planet);
+            for (int depth = 0; depth < fluids.length; depth++) {
+                if (fluids[depth] != null) {
+                    recipes.add(new SiphonRecipe(planet, depth, fluids[depth]));
+                }
+            }
+        }
+        return recipes;
+    }
 
-        RECIPES.put(SolarSystemPlanets.planetJupiter.getUnlocalizedName(), jupiterRecipes);
-        RECIPES.put(SolarSystemPlanets.planetSaturn.getUnlocalizedName(), saturnRecipes);
-        RECIPES.put(SolarSystemPlanets.planetUranus.getUnlocalizedName(), uranusRecipes);
-        RECIPES.put(SolarSystemPlanets.planetNeptune.getUnlocalizedName(), neptuneRecipes);
+    /**
+     * @return Version of the recipes, which changes whenever a recipe is added or removed
+     */
+    public static int getVersion() {
+        return version;
+    }
+
+    /**
+     * Fluid that is pumped on a planet at a depth
+     */
+    public static class SiphonRecipe {
+
+        /** Unlocalized name of the orbited planet */
+        public final String planet;
+        /** Pumping depth */
+        public final int depth;
+        /** Fluid that is pumped per second without overclocks, must not be modified */
+        public final FluidStack fluid;
+
+        /**
+         * Create a new siphon recipe
+         *
+         * @param planet Unlocalized name of the orbited planet
+         * @param depth  Pumping depth
+         * @param fluid  Fluid that is pumped per second without overclocks
+         */
+        public SiphonRecipe(String planet, int depth, FluidStack fluid) {
+            this.planet = planet;
+            this.depth = depth;
+            this.fluid = fluid;
+        }
     }
 }
@@ -5,6 +5,7 @@ import java.util.Comparator;
 import com.gtnewhorizons.gtnhintergalactic.gui.IG_UITextures;
 import com.gtnewhorizons.gtnhintergalactic.recipe.maps.SpaceAssemblerFrontend;
 import com.gtnewhorizons.gtnhintergalactic.recipe.maps.SpaceMiningFrontend;
+import com.gtnewhorizons.gtnhintergalactic.recipe.maps.SpaceMiningRecipeBackend;
 import com.gtnewhorizons.gtnhintergalactic.recipe.maps.SpaceResearchFrontend;
 
 import gregtech.api.recipe.RecipeMap;
@@ -36,8 +37,8 @@ public class IGRecipeMaps {
             .disableOptimize().neiTransferRect(88, 8, 18, 72).neiTransferRect(124, 8, 18, 72).useCustomFilterForNEI()
             .frontend(SpaceAssemblerFrontend::new).build();
     /** Recipe map for recipes in the Space Mining Module */
-    public static final RecipeMap<RecipeMapBackend> spaceMiningRecipes = RecipeMapBuilder.of("gt.recipe.spaceMining")
-            .maxIO(5, 16, 2, 0).minInputs(1, 0)
+    public static final RecipeMap<SpaceMiningRecipeBackend> spaceMiningRecipes = RecipeMapBuilder
+            .of("gt.recipe.spaceMining", SpaceMiningRecipeBackend::new).maxIO(5, 16, 2, 0).minInputs(1, 0)
             .neiRecipeComparator(
                     Comparator.<GTRecipe, Integer>comparing(recipe -> recipe.mSpecialValue)
                             .thenComparing(GTRecipe::compareTo))
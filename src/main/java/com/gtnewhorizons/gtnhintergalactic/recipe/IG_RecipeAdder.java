@@ -1,6 +1,8 @@
 package com.gtnewhorizons.gtnhintergalactic.recipe;
 
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
 
 import net.minecraft.item.ItemStack;
 import net.minecraftforge.fluids.FluidStack;
@@ -23,13 +25,19 @@ public class IG_RecipeAdder extends RecipeAdder {
     public static IG_RecipeAdder instance = new IG_RecipeAdder();
     public static final ItemStack[] nullItem = new ItemStack[0];
     public static final FluidStack[] nullFluid = new FluidStack[0];
+    /**
+     * Every registered space mining recipe, mapped to itself. A recipe that is equal to an already registered one isn't
+     * added again, so all recipes in the recipe map are unique and can be compared by identity
+     */
+    private static final Map<IG_SpaceMiningRecipe, IG_SpaceMiningRecipe> CANONICAL_MINING_RECIPES = new HashMap<>();
 
     public static void init() {
 
     }
 
     public static void postInit() {
-
+        MiningPlasmaRegistry.init();
+        SpaceMiningPoolIndex.build();
     }
 
     /**
@@ -175,7 +183,7 @@ public class IG_RecipeAdder extends RecipeAdder {
             outputs[i] = GTOreDictUnificator.get(orePrefixes, ores[i], 64);
         }
 
-        IGRecipeMaps.spaceMiningRecipes.add(
+        return registerSpaceMiningRecipe(
                 new IG_SpaceMiningRecipe(
                         false,
                         asteroidName,
@@ -192,7 +200,6 @@ public class IG_RecipeAdder extends RecipeAdder {
                         minSize,
                         maxSize,
                         recipeWeight));
-        return true;
     }
 
     public static boolean addSpaceMiningRecipe(String asteroidName, ItemStack[] aItemInputs, FluidStack[] aFluidInputs,
@@ -232,7 +239,7 @@ public class IG_RecipeAdder extends RecipeAdder {
             aFluidInputs = nullFluid;
         }
 
-        IGRecipeMaps.spaceMiningRecipes.add(
+        return registerSpaceMiningRecipe(
                 new IG_SpaceMiningRecipe(
                         false,
                         asteroidName,
@@ -249,7 +256,18 @@ public class IG_RecipeAdder extends RecipeAdder {
                         minSize,
                         maxSize,
                         recipeWeight));
+    }
 
+    /**
+     * Add a space mining recipe to the recipe map, unless an equal recipe was already added
+     *
+     * @param recipe Recipe that will be added
+     * @return True if the recipe is now registered
+     */
+    private static boolean registerSpaceMiningRecipe(IG_SpaceMiningRecipe recipe) {
+        if (CANONICAL_MINING_RECIPES.putIfAbsent(recipe, recipe) == null) {
+            IGRecipeMaps.spaceMiningRecipes.add(recipe);
+        }
         return true;
     }
 }
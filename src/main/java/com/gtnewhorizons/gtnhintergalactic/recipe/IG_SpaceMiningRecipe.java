@@ -19,13 +19,15 @@ import gregtech.api.util.GTUtility;
  */
 public class IG_SpaceMiningRecipe extends GTRecipe {
 
-    public String asteroidName;
-    public int minDistance;
-    public int maxDistance;
-    public int minSize;
-    public int maxSize;
-    public int computation;
-    public int recipeWeight;
+    public final String asteroidName;
+    public final int minDistance;
+    public final int maxDistance;
+    public final int minSize;
+    public final int maxSize;
+    public final int computation;
+    public final int recipeWeight;
+    /** Hash of this recipe, computed once because it is costly and the recipe never changes after registration */
+    private final int hash;
 
     public IG_SpaceMiningRecipe(boolean aOptimize, String asteroidName, ItemStack[] aItemInputs,
             ItemStack[] aItemOutputs, FluidStack[] aFluidInputs, int[] aChances, int aDuration, int aEUt,
@@ -39,6 +41,7 @@ public class IG_SpaceMiningRecipe extends GTRecipe {
         this.maxSize = maxSize;
         this.computation = computation;
         this.recipeWeight = recipeWeight;
+        this.hash = computeHash();
     }
 
     /**
@@ -59,7 +62,12 @@ public class IG_SpaceMiningRecipe extends GTRecipe {
         return recipeWeight;
     }
 
+    @Override
     public int hashCode() {
+        return hash;
+    }
+
+    private int computeHash() {
         int res = 0;
         res = 31 * res + minDistance;
         res = 31 * res + maxDistance;
@@ -70,7 +78,8 @@ public class IG_SpaceMiningRecipe extends GTRecipe {
         res = 31 * res + mSpecialValue;
         res = 31 * res + mDuration;
         res = 31 * res + mEUt;
-        res = 31 * res + GTUtility.ItemId.createWithoutNBT(mInputs[0]).hashCode();
+        res = 31 * res + (mInputs == null || mInputs.length == 0 || mInputs[0] == null ? 0
+                : GTUtility.ItemId.createWithoutNBT(mInputs[0]).hashCode());
         // We don't care about the order of the output items, so we compute the first five sums
         // of powers of the hashes of the items. This is obviously order invariant, but highly sensitive
         // to changes of item hashes, which is what we want. Five is more than we need but whatever
@@ -94,12 +103,18 @@ public class IG_SpaceMiningRecipe extends GTRecipe {
         return res;
     }
 
+    @Override
     public boolean equals(Object _other) {
+        if (this == _other) {
+            return true;
+        }
         if (!(_other instanceof IG_SpaceMiningRecipe)) {
             return false;
         }
         IG_SpaceMiningRecipe other = (IG_SpaceMiningRecipe) _other;
-        if (minDistance != other.minDistance || maxDistance != other.maxDistance
+        // Registered recipes are canonical, so equal recipes are usually the same instance and the cached hash
+        // rejects almost all other ones before the inputs and outputs have to be compared
+        if (hash != other.hash || minDistance != other.minDistance || maxDistance != other.maxDistance
                 || minSize != other.minSize
                 || maxSize != other.maxSize
                 || computation != other.computation
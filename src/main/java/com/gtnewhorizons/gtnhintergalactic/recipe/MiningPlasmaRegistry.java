@@ -0,0 +1,173 @@
+package com.gtnewhorizons.gtnhintergalactic.recipe;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+import net.minecraftforge.fluids.Fluid;
+import net.minecraftforge.fluids.FluidRegistry;
+import net.minecraftforge.fluids.FluidStack;
+
+import com.gtnewhorizons.gtnhintergalactic.GTNHIntergalactic;
+import com.gtnewhorizons.gtnhintergalactic.config.IGConfig;
+
+import gregtech.api.enums.Materials;
+
+/**
+ * Registry of the plasmas that power the space mining modules. Each plasma has its own tier, higher tiers speed up the
+ * mining operation and raise the chance for bonus stacks. The plasma fluids are resolved once, so looking up a stored
+ * fluid is a single map access.
+ */
+public class MiningPlasmaRegistry {
+
+    /** Registered plasmas by their fluid */
+    private static final Map<Fluid, MiningPlasma> PLASMAS_BY_FLUID = new IdentityHashMap<>();
+    /** Registered plasmas by their tier */
+    private static final Map<Integer, MiningPlasma> PLASMAS_BY_TIER = new TreeMap<>();
+    /** Flag if the default and configured plasmas were registered */
+    private static boolean isInitialized = false;
+
+    /**
+     * Register the default plasmas and the plasmas from the config. Has to be called after all fluids are registered
+     */
+    public static synchronized void init() {
+        if (isInitialized) {
+            return;
+        }
+        isInitialized = true;
+        registerPlasma(new MiningPlasma(Materials.Helium.getPlasma(1).getFluid(), 1, 1000, 1.0D, 5000));
+        registerPlasma(new MiningPlasma(Materials.Bismuth.getPlasma(1).getFluid(), 2, 500, 0.9D, 6000));
+        registerPlasma(new MiningPlasma(Materials.Radon.getPlasma(1).getFluid(), 3, 300, 0.8D, 7000));
+        for (String entry : IGConfig.spaceMining.additionalPlasmas) {
+            registerFromConfig(entry);
+        }
+    }
+
+    /**
+     * Register a plasma. A plasma that is registered with an already used tier replaces the old plasma of that tier
+     *
+     * @param plasma Plasma that will be registered
+     */
+    public static synchronized void registerPlasma(MiningPlasma plasma) {
+        if (plasma.fluid == null) {
+            throw new IllegalArgumentException("Mining plasma of tier " + plasma.tier + " has no fluid");
+        }
+        if (plasma.tier <= 0 || plasma.usage <= 0) {
+            throw new IllegalArgumentException(
+                    "Mining plasma " + plasma.fluid.getName() + " needs a positive tier and usage");
+        }
+        MiningPlasma replaced = PLASMAS_BY_TIER.put(plasma.tier, plasma);
+        if (replaced != null) {
+            PLASMAS_BY_FLUID.remove(replaced.fluid);
+        }
+        replaced = PLASMAS_BY_FLUID.put(plasma.fluid, plasma);
+        if (replaced != null && replaced.tier != plasma.tier) {
+            PLASMAS_BY_TIER.remove(replaced.tier);
+        }
+    }
+
+    /**
+     * Get the plasma for a stored fluid
+     *
+     * @param fluidStack Stored fluid
+     * @return Plasma of the fluid or null if it isn't a mining plasma
+     */
+    public static MiningPlasma getPlasma(FluidStack fluidStack) {
+        if (fluidStack == null || fluidStack.getFluid() == null) {
+            return null;
+        }
+        if (!isInitialized) {
+            init();
+        }
+        return PLASMAS_BY_FLUID.get(fluidStack.getFluid());
+    }
+
+    /**
+     * Get the plasma of a tier
+     *
+     * @param tier Plasma tier
+     * @return Plasma of the tier or null if no plasma has this tier
+     */
+    public static MiningPlasma getPlasma(int tier) {
+        if (!isInitialized) {
+            init();
+        }
+        return PLASMAS_BY_TIER.get(tier);
+    }
+
+    /**
+     * @return All registered plasmas, sorted by tier
+     */
+    public static Collection<MiningPlasma> getPlasmas() {
+        if (!isInitialized) {
+            init();
+        }
+        return Collections.unmodifiableCollection(PLASMAS_BY_TIER.values());
+    }
+
+    /**
+     * Register a plasma from a config entry of the form fluidName,tier,usage,timeModifier,bonusStackChance
+     *
+     * @param entry Config entry
+     */
+    private static void registerFromConfig(String entry) {
+        String[] parts = entry.split(",");
+        if (parts.length != 5) {
+            GTNHIntergalactic.LOG.warn("Ignoring invalid mining plasma entry \"{}\"", entry);
+            return;
+        }
+        Fluid fluid = FluidRegistry.getFluid(parts[0].trim());
+        if (fluid == null) {
+            GTNHIntergalactic.LOG.warn("Ignoring mining plasma entry \"{}\", the fluid doesn't exist", entry);
+            return;
+        }
+        try {
+            registerPlasma(
+                    new MiningPlasma(
+                            fluid,
+                            Integer.parseInt(parts[1].trim()),
+                            Integer.parseInt(parts[2].trim()),
+                            Double.parseDouble(parts[3].trim()),
+                            Integer.parseInt(parts[4].trim())));
+        } catch (IllegalArgumentException e) {
+            // Also catches NumberFormatException
+            GTNHIntergalactic.LOG.warn("Ignoring invalid mining plasma entry \"{}\": {}", entry, e.getMessage());
+        }
+    }
+
+    /**
+     * Plasma that can be used by the space mining modules
+     */
+    public static class MiningPlasma {
+
+        /** Fluid of the plasma */
+        public final Fluid fluid;
+        /** Tier of the plasma */
+        public final int tier;
+        /** Used amount per parallel of a mining operation */
+        public final int usage;
+        /** Factor applied to the recipe time */
+        public final double timeModifier;
+        /** Chance out of 10000 for bonus stacks, before the overdrive setting is applied */
+        public final int bonusStackChance;
+
+        /**
+         * Create a new mining plasma
+         *
+         * @param fluid            Fluid of the plasma
+         * @param tier             Tier of the plasma
+         * @param usage            Used amount per parallel of a mining operation
+         * @param timeModifier     Factor applied to the recipe time
+         * @param bonusStackChance Chance out of 10000 for bonus stacks, before the overdrive setting is applied
+         */
+        public MiningPlasma(Fluid fluid, int tier, int usage, double timeModifier, int bonusStackChance) {
+            this.fluid = fluid;
+            this.tier = tier;
+            this.usage = usage;
+            this.timeModifier = timeModifier;
+            this.bonusStackChance = bonusStackChance;
+        }
+    }
+}
@@ -0,0 +1,306 @@
+package com.gtnewhorizons.gtnhintergalactic.recipe;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import net.minecraftforge.fluids.Fluid;
+import net.minecraftforge.fluids.FluidRegistry;
+import net.minecraftforge.fluids.FluidStack;
+
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.gtnewhorizons.gtnhintergalactic.GTNHIntergalactic;
+
+import cpw.mods.fml.common.Loader;
+
+/**
+ * Loads the recipe tables of the Gas Siphon and the space pump modules from versioned JSON files in the config
+ * directory. Missing files are created from the default recipes, so pack makers can edit the yields and load them
+ * again with a command instead of restarting the game. The files are validated entry by entry, invalid entries are
+ * skipped and a file that can't be read at all leaves the current recipes untouched.
+ */
+public class RecipeTableFiles {
+
+    /** Version of the file format, files with another version are rejected */
+    public static final int FORMAT_VERSION = 1;
+    /** Directory of the recipe files, relative to the config directory */
+    private static final String DIRECTORY = "gtnhintergalactic";
+    /** File name of the siphon recipes */
+    private static final String SIPHON_FILE = "siphon_recipes.json";
+    /** File name of the pump recipes */
+    private static final String PUMP_FILE = "pump_recipes.json";
+
+    /** Flag if the recipes were loaded at least once */
+    private static boolean isLoaded = false;
+
+    /**
+     * Load the siphon and pump recipes from their files. Has to be called after all fluids are registered. Missing
+     * files are created from the default recipes
+     *
+     * @return Summary of the load
+     */
+    public static synchronized LoadResult loadRecipes() {
+        File directory = new File(Loader.instance().getConfigDir(), DIRECTORY);
+        LoadResult result = new LoadResult();
+        loadSiphonRecipes(new File(directory, SIPHON_FILE), result);
+        loadPumpRecipes(new File(directory, PUMP_FILE), result);
+        isLoaded = true;
+        return result;
+    }
+
+    private static void loadSiphonRecipes(File file, LoadResult result) {
+        List<GasSiphonRecipes.SiphonRecipe> recipes;
+        try {
+            recipes = file.exists() ? readSiphonRecipes(file, result) : null;
+        } catch (IOException | RecipeFileException e) {
+            GTNHIntergalactic.LOG.error("Could not load siphon recipes from {}: {}", file, e.getMessage());
+            result.failedFiles.add(file.getName());
+            if (!isLoaded) {
+                recipes = null;
+            } else {
+                result.siphonRecipes = GasSiphonRecipes.getRecipes().size();
+                return;
+            }
+        }
+
+        if (recipes == null) {
+            recipes = GasSiphonRecipes.getDefaultRecipes();
+            if (!file.exists()) {
+                writeSiphonRecipes(file, recipes);
+            }
+        }
+        // the new recipes are swapped in at once, so running siphons never see an empty table
+        GasSiphonRecipes.replaceRecipes(recipes);
+        result.siphonRecipes = GasSiphonRecipes.getRecipes().size();
+    }
+
+    private static void loadPumpRecipes(File file, LoadResult result) {
+        List<SpacePumpingRecipes.PumpingRecipe> recipes;
+        try {
+            recipes = file.exists() ? readPumpRecipes(file, result) : null;
+        } catch (IOException | RecipeFileException e) {
+            GTNHIntergalactic.LOG.error("Could not load pump recipes from {}: {}", file, e.getMessage());
+            result.failedFiles.add(file.getName());
+            if (!isLoaded) {
+                recipes = null;
+            } else {
+                result.pumpRecipes = SpacePumpingRecipes.getRecipes().size();
+                return;
+            }
+        }
+
+        if (recipes == null) {
+            recipes = SpacePumpingRecipes.getDefaultRecipes();
+            if (!file.exists()) {
+                writePumpRecipes(file, recipes);
+            }
+        }
+        // the config entries are written for the recipes in use, so they aren't part of the file
+        List<SpacePumpingRecipes.PumpingRecipe> allRecipes = new ArrayList<>(recipes);
+        allRecipes.addAll(SpacePumpingRecipes.getConfigRecipes());
+        SpacePumpingRecipes.replaceRecipes(allRecipes);
+        result.pumpRecipes = SpacePumpingRecipes.getRecipes().size();
+    }
+
+    private static List<GasSiphonRecipes.SiphonRecipe> readSiphonRecipes(File file, LoadResult result)
+            throws IOException, RecipeFileException {
+        List<GasSiphonRecipes.SiphonRecipe> recipes = new ArrayList<>();
+        Set<String> keys = new HashSet<>();
+        JsonArray entries = readEntries(file);
+        for (int i = 0; i < entries.size(); i++) {
+            try {
+                JsonObject entry = getObject(entries.get(i));
+                String planet = getString(entry, "planet");
+                int depth = getPositiveInt(entry, "depth");
+                FluidStack fluid = getFluid(entry);
+                if (!keys.add(planet + ":" + depth)) {
+                    GTNHIntergalactic.LOG.warn(
+                            "Siphon recipe {} in {} replaces an earlier recipe for planet {} and depth {}",
+                            i,
+                            file.getName(),
+                            planet,
+                            depth);
+                }
+                recipes.add(new GasSiphonRecipes.SiphonRecipe(planet, depth, fluid));
+            } catch (RecipeFileException e) {
+                GTNHIntergalactic.LOG.warn("Skipping siphon recipe {} in {}: {}", i, file.getName(), e.getMessage());
+                result.skippedEntries++;
+            }
+        }
+        return recipes;
+    }
+
+    private static List<SpacePumpingRecipes.PumpingRecipe> readPumpRecipes(File file, LoadResult result)
+            throws IOException, RecipeFileException {
+        List<SpacePumpingRecipes.PumpingRecipe> recipes = new ArrayList<>();
+        Set<String> keys = new HashSet<>();
+        JsonArray entries = readEntries(file);
+        for (int i = 0; i < entries.size(); i++) {
+            try {
+                JsonObject entry = getObject(entries.get(i));
+                int planetType = getPositiveInt(entry, "planetType");
+                int gasType = getPositiveInt(entry, "gasType");
+                FluidStack fluid = getFluid(entry);
+                if (!keys.add(planetType + ":" + gasType)) {
+                    GTNHIntergalactic.LOG.warn(
+                            "Pump recipe {} in {} replaces an earlier recipe for planet type {} and gas type {}",
+                            i,
+                            file.getName(),
+                            planetType,
+                            gasType);
+                }
+                recipes.add(new SpacePumpingRecipes.PumpingRecipe(planetType, gasType, fluid));
+            } catch (RecipeFileException e) {
+                GTNHIntergalactic.LOG.warn("Skipping pump recipe {} in {}: {}", i, file.getName(), e.getMessage());
+                result.skippedEntries++;
+            }
+        }
+        return recipes;
+    }
+
+    private static void writeSiphonRecipes(File file, List<GasSiphonRecipes.SiphonRecipe> recipes) {
+        JsonArray entries = new JsonArray();
+        for (GasSiphonRecipes.SiphonRecipe recipe : recipes) {
+            if (recipe.fluid == null) {
+                continue;
+            }
+            JsonObject entry = new JsonObject();
+            entry.addProperty("planet", recipe.planet);
+            entry.addProperty("depth", recipe.depth);
+            addFluid(entry, recipe.fluid);
+            entries.add(entry);
+        }
+        writeEntries(file, entries);
+    }
+
+    private static void writePumpRecipes(File file, List<SpacePumpingRecipes.PumpingRecipe> recipes) {
+        JsonArray entries = new JsonArray();
+        for (SpacePumpingRecipes.PumpingRecipe recipe : recipes) {
+            if (recipe.fluid == null) {
+                continue;
+            }
+            JsonObject entry = new JsonObject();
+            entry.addProperty("planetType", recipe.planetType);
+            entry.addProperty("gasType", recipe.gasType);
+            addFluid(entry, recipe.fluid);
+            entries.add(entry);
+        }
+        writeEntries(file, entries);
+    }
+
+    private static JsonArray readEntries(File file) throws IOException, RecipeFileException {
+        JsonElement root;
+        try (Reader reader = new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8)) {
+            root = new JsonParser().parse(reader);
+        } catch (JsonParseException e) {
+            throw new RecipeFileException("invalid JSON, " + e.getMessage());
+        }
+        JsonObject object = getObject(root);
+        int version = getPositiveInt(object, "version");
+        if (version != FORMAT_VERSION) {
+            throw new RecipeFileException("unsupported version " + version + ", expected " + FORMAT_VERSION);
+        }
+        JsonElement recipes = object.get("recipes");
+        if (recipes == null || !recipes.isJsonArray()) {
+            throw new RecipeFileException("missing recipes array");
+        }
+        return recipes.getAsJsonArray();
+    }
+
+    private static void writeEntries(File file, JsonArray entries) {
+        JsonObject root = new JsonObject();
+        root.addProperty("version", FORMAT_VERSION);
+        root.add("recipes", entries);
+        File directory = file.getParentFile();
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            GTNHIntergalactic.LOG.error("Could not create the recipe directory {}", directory);
+            return;
+        }
+        try (Writer writer = new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8)) {
+            new GsonBuilder().setPrettyPrinting().create().toJson(root, writer);
+        } catch (IOException e) {
+            GTNHIntergalactic.LOG.error("Could not write the default recipes to {}", file, e);
+        }
+    }
+
+    private static void addFluid(JsonObject entry, FluidStack fluid) {
+        entry.addProperty("fluid", fluid.getFluid().getName());
+        entry.addProperty("amount", fluid.amount);
+    }
+
+    private static FluidStack getFluid(JsonObject entry) throws RecipeFileException {
+        String name = getString(entry, "fluid");
+        Fluid fluid = FluidRegistry.getFluid(name);
+        if (fluid == null) {
+            throw new RecipeFileException("unknown fluid " + name);
+        }
+        return new FluidStack(fluid, getPositiveInt(entry, "amount"));
+    }
+
+    private static JsonObject getObject(JsonElement element) throws RecipeFileException {
+        if (element == null || !element.isJsonObject()) {
+            throw new RecipeFileException("expected an object");
+        }
+        return element.getAsJsonObject();
+    }
+
+    private static String getString(JsonObject object, String key) throws RecipeFileException {
+        JsonElement element = object.get(key);
+        if (element == null || !element.isJsonPrimitive() || !element.getAsJsonPrimitive().isString()) {
+            throw new RecipeFileException("missing text " + key);
+        }
+        return element.getAsString();
+    }
+
+    private static int getPositiveInt(JsonObject object, String key) throws RecipeFileException {
+        JsonElement element = object.get(key);
+        if (element == null || !element.isJsonPrimitive() || !element.getAsJsonPrimitive().isNumber()) {
+            throw new RecipeFileException("missing number " + key);
+        }
+        double value = element.getAsDouble();
+        if (value < 1 || value > Integer.MAX_VALUE || value != Math.floor(value)) {
+            throw new RecipeFileException(key + " has to be a positive whole number, got " + element);
+        }
+        return (int) value;
+    }
+
+    /**
+     * Summary of a load of the recipe files
+     */
+    public static class LoadResult {
+
+        /** Number of loaded siphon recipes */
+        public int siphonRecipes;
+        /** Number of loaded pump recipes */
+        public int pumpRecipes;
+        /** Number of invalid entries that were skipped */
+        public int skippedEntries;
+        /** Files that couldn't be read, their recipes stay as they were or are the defaults on the first load */
+        public final List<String> failedFiles = new ArrayList<>();
+    }
+
+    /**
+     * Error in a recipe file
+     */
+    private static class RecipeFileException extends Exception {
+
+        private RecipeFileException(String message) {
+            super(message);
+        }
+    }
+}
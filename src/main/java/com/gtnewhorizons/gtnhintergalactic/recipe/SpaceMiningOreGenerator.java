@@ -0,0 +1,248 @@
+package com.gtnewhorizons.gtnhintergalactic.recipe;
+
+import java.util.Random;
+
+/**
+ * Ore generation of the space mining modules. Instead of rolling every stack on its own, the number of bonus stacks is
+ * drawn from a binomial distribution and all stacks are split across the outputs with a multinomial draw. This gives
+ * the same distribution as rolling each stack, but the cost only depends on the number of outputs of the asteroid.
+ */
+public class SpaceMiningOreGenerator {
+
+    /** Below this mean the binomial sampler uses inversion, above it BTPE */
+    private static final double INVERSION_THRESHOLD = 30D;
+
+    /** Output mask that allows every output */
+    public static final long ALL_OUTPUTS = -1L;
+
+    /**
+     * Generate the number of stacks of each output of a mining operation
+     *
+     * @param recipe           Mined asteroid
+     * @param parallels        Number of parallels of the operation
+     * @param bonusStackChance Chance out of 10000 to get each stack between minSize and maxSize
+     * @param random           Random number generator used for the operation
+     * @return Number of generated stacks for each entry of the recipe outputs
+     */
+    public static long[] generateStacks(IG_SpaceMiningRecipe recipe, int parallels, int bonusStackChance,
+            Random random) {
+        return generateStacks(recipe, parallels, bonusStackChance, random, ALL_OUTPUTS);
+    }
+
+    /**
+     * Generate the number of stacks of each allowed output of a mining operation. Stacks that would be generated for
+     * filtered outputs are voided, so the allowed outputs get the same amounts as without a filter
+     *
+     * @param recipe           Mined asteroid
+     * @param parallels        Number of parallels of the operation
+     * @param bonusStackChance Chance out of 10000 to get each stack between minSize and maxSize
+     * @param random           Random number generator used for the operation
+     * @param allowedOutputs   Bitmask of the output indices that should be generated
+     * @return Number of generated stacks for each entry of the recipe outputs, 0 for filtered outputs
+     */
+    public static long[] generateStacks(IG_SpaceMiningRecipe recipe, int parallels, int bonusStackChance,
+            Random random, long allowedOutputs) {
+        int outputCount = Math.min(recipe.mOutputs.length, recipe.mChances.length);
+        long[] stacks = new long[outputCount];
+        int guaranteedStacks = recipe.minSize * parallels;
+        int bonusStacks = nextBinomial(
+                random,
+                (recipe.maxSize - recipe.minSize) * parallels,
+                Math.min(Math.max(bonusStackChance, 0), 10000) / 10000D);
+        int remainingStacks = guaranteedStacks + bonusStacks;
+
+        long remainingChance = 0;
+        long allowedChance = 0;
+        for (int i = 0; i < outputCount; i++) {
+            int chance = Math.max(recipe.mChances[i], 0);
+            remainingChance += chance;
+            if (isOutputAllowed(allowedOutputs, i)) {
+                allowedChance += chance;
+            }
+        }
+        // Split the stacks with a chain of conditional binomial draws, each output takes its share of what is left.
+        // Filtered outputs are never drawn, their share stays in the remainder and is voided at the end
+        for (int i = 0; i < outputCount && remainingStacks > 0 && allowedChance > 0; i++) {
+            if (!isOutputAllowed(allowedOutputs, i)) {
+                continue;
+            }
+            int chance = Math.max(recipe.mChances[i], 0);
+            int generated = chance >= remainingChance ? remainingStacks
+                    : nextBinomial(random, remainingStacks, (double) chance / remainingChance);
+            stacks[i] = generated;
+            remainingStacks -= generated;
+            remainingChance -= chance;
+            allowedChance -= chance;
+        }
+        return stacks;
+    }
+
+    /**
+     * Check if an output index is part of an output mask. Outputs beyond the size of the mask are always allowed
+     *
+     * @param allowedOutputs Bitmask of allowed output indices
+     * @param index          Index of the output
+     * @return True if the output is allowed
+     */
+    public static boolean isOutputAllowed(long allowedOutputs, int index) {
+        return index >= Long.SIZE || (allowedOutputs & (1L << index)) != 0;
+    }
+
+    /**
+     * Draw from a binomial distribution. Small means use inversion, larger ones use the BTPE algorithm of
+     * Kachitvichyanukul and Schmeiser, so the cost doesn't grow with the number of trials
+     *
+     * @param random Random number generator
+     * @param n      Number of trials
+     * @param p      Success probability of each trial
+     * @return Number of successes
+     */
+    public static int nextBinomial(Random random, int n, double p) {
+        if (n <= 0 || p <= 0D) {
+            return 0;
+        }
+        if (p >= 1D) {
+            return n;
+        }
+        if (p <= 0.5D) {
+            return n * p <= INVERSION_THRESHOLD ? binomialInversion(random, n, p) : binomialBtpe(random, n, p);
+        }
+        double q = 1D - p;
+        return n - (n * q <= INVERSION_THRESHOLD ? binomialInversion(random, n, q) : binomialBtpe(random, n, q));
+    }
+
+    private static int binomialInversion(Random random, int n, double p) {
+        double q = 1D - p;
+        double qn = Math.exp(n * Math.log(q));
+        double np = n * p;
+        int bound = (int) Math.min(n, np + 10D * Math.sqrt(np * q + 1D));
+        int x = 0;
+        double px = qn;
+        double u = random.nextDouble();
+        while (u > px) {
+            x++;
+            if (x > bound) {
+                x = 0;
+                px = qn;
+                u = random.nextDouble();
+            } else {
+                u -= px;
+                px = ((n - x + 1) * p * px) / (x * q);
+            }
+        }
+        return x;
+    }
+
+    private static int binomialBtpe(Random random, int n, double p) {
+        double r = p;
+        double q = 1D - r;
+        double fm = n * r + r;
+        int m = (int) Math.floor(fm);
+        double p1 = Math.floor(2.195D * Math.sqrt(n * r * q) - 4.6D * q) + 0.5D;
+        double xm = m + 0.5D;
+        double xl = xm - p1;
+        double xr = xm + p1;
+        double c = 0.134D + 20.5D / (15.3D + m);
+        double a = (fm - xl) / (fm - xl * r);
+        double laml = a * (1D + a / 2D);
+        a = (xr - fm) / (xr * q);
+        double lamr = a * (1D + a / 2D);
+        double p2 = p1 * (1D + 2D * c);
+        double p3 = p2 + c / laml;
+        double p4 = p3 + c / lamr;
+        double nrq = n * r * q;
+
+        while (true) {
+            double u = random.nextDouble() * p4;
+            double v = random.nextDouble();
+            int y;
+            if (u <= p1) {
+                // Triangular center region, always accepted
+                return (int) Math.floor(xm - p1 * v + u);
+            } else if (u <= p2) {
+                // Parallelogram region
+                double x = xl + (u - p1) / c;
+                v = v * c + 1D - Math.abs(m - x + 0.5D) / p1;
+                if (v > 1D) {
+                    continue;
+                }
+                y = (int) Math.floor(x);
+            } else if (u <= p3) {
+                // Left exponential tail
+                if (v == 0D) {
+                    continue;
+                }
+                y = (int) Math.floor(xl + Math.log(v) / laml);
+                if (y < 0) {
+                    continue;
+                }
+                v = v * (u - p2) * laml;
+            } else {
+                // Right exponential tail
+                if (v == 0D) {
+                    continue;
+                }
+                y = (int) Math.floor(xr - Math.log(v) / lamr);
+                if (y > n) {
+                    continue;
+                }
+                v = v * (u - p3) * lamr;
+            }
+
+            int k = Math.abs(y - m);
+            if (k <= 20 || k >= nrq / 2D - 1D) {
+                // Explicit evaluation of the density ratio
+                double s = r / q;
+                double aa = s * (n + 1);
+                double f = 1D;
+                if (m < y) {
+                    for (int i = m + 1; i <= y; i++) {
+                        f *= (aa / i - s);
+                    }
+                } else if (m > y) {
+                    for (int i = y + 1; i <= m; i++) {
+                        f /= (aa / i - s);
+                    }
+                }
+                if (v <= f) {
+                    return y;
+                }
+                continue;
+            }
+
+            // Squeeze with the normal approximation, then compare against Stirling's approximation
+            double rho = (k / nrq) * ((k * (k / 3D + 0.625D) + 0.16666666666666666D) / nrq + 0.5D);
+            double t = -((double) k * k) / (2D * nrq);
+            double logV = Math.log(v);
+            if (logV < t - rho) {
+                return y;
+            }
+            if (logV > t + rho) {
+                continue;
+            }
+            double x1 = y + 1;
+            double f1 = m + 1;
+            double z = n + 1 - m;
+            double w = n - y + 1;
+            if (logV <= xm * Math.log(f1 / x1) + (n - m + 0.5D) * Math.log(z / w)
+                    + (y - m) * Math.log(w * r / (x1 * q))
+                    + stirlingCorrection(f1)
+                    + stirlingCorrection(z)
+                    - stirlingCorrection(x1)
+                    - stirlingCorrection(w)) {
+                return y;
+            }
+        }
+    }
+
+    /**
+     * Correction term of Stirling's approximation of ln(Gamma(x)), which is 1/12x - 1/360x^3 + 1/1260x^5 - ...
+     *
+     * @param x Argument of the gamma function
+     * @return Difference between ln(Gamma(x)) and its Stirling approximation
+     */
+    private static double stirlingCorrection(double x) {
+        double x2 = x * x;
+        return (13860D - (462D - (132D - (99D - 140D / x2) / x2) / x2) / x2) / x / 166320D;
+    }
+}
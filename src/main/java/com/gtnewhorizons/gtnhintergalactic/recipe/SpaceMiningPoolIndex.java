@@ -0,0 +1,215 @@
+package com.gtnewhorizons.gtnhintergalactic.recipe;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+import net.minecraft.item.ItemStack;
+
+import com.gtnewhorizons.gtnhintergalactic.GTNHIntergalactic;
+import com.gtnewhorizons.gtnhintergalactic.item.ItemMiningDrones;
+import com.gtnewhorizons.gtnhintergalactic.recipe.SpaceMiningRecipes.WeightedAsteroidList;
+import com.gtnewhorizons.gtnhintergalactic.recipe.maps.SpaceMiningRecipeBackend;
+
+import gregtech.api.util.GTRecipe;
+import gregtech.api.util.GTUtility;
+
+/**
+ * Precomputed asteroid pools for the space mining modules. For every distance, module tier and drone tier the usable
+ * recipes are resolved once after all recipes are registered. The weighted pool of a drone bitmask is the union of
+ * the pools of its drone tiers, it is assembled on first use and then shared by all miners, so no recipe map query is
+ * needed while mining.
+ */
+public class SpaceMiningPoolIndex {
+
+    /** Maximum distance covered by the index */
+    public static final int MAX_DISTANCE = 300;
+    /** Number of drone tiers that can appear in a drone mask */
+    public static final int DRONE_TIER_COUNT = ItemMiningDrones.DroneMaterials.values().length;
+    /** Pool that is returned if nothing can be mined */
+    public static final WeightedAsteroidList EMPTY_POOL = new WeightedAsteroidList(Stream.empty());
+
+    private static final IG_SpaceMiningRecipe[] NO_RECIPES = new IG_SpaceMiningRecipe[0];
+
+    /** Usable recipes for [module tier][distance][drone tier] */
+    private static IG_SpaceMiningRecipe[][][] recipesByDroneTier;
+    /** Bitmask of drone tiers that have any recipe for [module tier][distance] */
+    private static int[][] usefulDroneMasks;
+    /** Highest module tier that any recipe requires */
+    private static int maxModuleTier;
+    /** Flag if every recipe can be resolved from the drone mask alone */
+    private static boolean isComplete;
+    /** Distinct EU/t of the indexed recipes in ascending order */
+    private static long[] recipeVoltages = new long[0];
+    /** Assembled pools, keyed by {@link #getPoolKey(int, int, int, int)} */
+    private static final Map<Long, WeightedAsteroidList> POOLS = new ConcurrentHashMap<>();
+
+    /**
+     * Build the index from the space mining recipe map. Has to be called after all recipes are registered and can be
+     * called again if recipes were added afterwards
+     */
+    public static synchronized void build() {
+        // Recipes from IG_RecipeAdder are already unique, but recipes that were added to the recipe map directly can
+        // still be duplicates. Thanks to the cached recipe hash this check is cheap
+        Set<IG_SpaceMiningRecipe> recipes = new LinkedHashSet<>();
+        boolean complete = true;
+        int maxTier = 0;
+        for (GTRecipe recipe : IGRecipeMaps.spaceMiningRecipes.getAllRecipes()) {
+            if (recipe instanceof IG_SpaceMiningRecipe) {
+                IG_SpaceMiningRecipe miningRecipe = (IG_SpaceMiningRecipe) recipe;
+                if (getDroneTier(miningRecipe) < 0) {
+                    complete = false;
+                    continue;
+                }
+                recipes.add(miningRecipe);
+                maxTier = Math.max(maxTier, miningRecipe.mSpecialValue);
+            }
+        }
+        // The backend returns every copy of a duplicate, so the cells only take the instances that survived the dedup
+        Set<IG_SpaceMiningRecipe> indexed = Collections.newSetFromMap(new IdentityHashMap<>());
+        indexed.addAll(recipes);
+        long[] voltages = recipes.stream().mapToLong(recipe -> recipe.mEUt).distinct().sorted().toArray();
+
+        SpaceMiningRecipeBackend backend = IGRecipeMaps.spaceMiningRecipes.getBackend();
+        IG_SpaceMiningRecipe[][][] table = new IG_SpaceMiningRecipe[maxTier + 1][MAX_DISTANCE + 1][];
+        int[][] masks = new int[maxTier + 1][MAX_DISTANCE + 1];
+        for (int moduleTier = 0; moduleTier <= maxTier; moduleTier++) {
+            for (int distance = 0; distance <= MAX_DISTANCE; distance++) {
+                IG_SpaceMiningRecipe[][] cell = new IG_SpaceMiningRecipe[DRONE_TIER_COUNT][];
+                for (int droneTier = 0; droneTier < DRONE_TIER_COUNT; droneTier++) {
+                    // The backend already sorts the recipes by drone tier and distance, recipes that need more than
+                    // the drone, drill and rod of their tier are left out
+                    IG_SpaceMiningRecipe[] droneRecipes = backend.findRecipes(1 << droneTier, distance, moduleTier)
+                            .filter(indexed::contains).toArray(IG_SpaceMiningRecipe[]::new);
+                    if (droneRecipes.length == 0) {
+                        cell[droneTier] = NO_RECIPES;
+                    } else {
+                        cell[droneTier] = droneRecipes;
+                        masks[moduleTier][distance] |= 1 << droneTier;
+                    }
+                }
+                table[moduleTier][distance] = cell;
+            }
+        }
+
+        POOLS.clear();
+        recipesByDroneTier = table;
+        usefulDroneMasks = masks;
+        maxModuleTier = maxTier;
+        recipeVoltages = voltages;
+        isComplete = complete;
+        if (!complete) {
+            GTNHIntergalactic.LOG.warn(
+                    "Some space mining recipes need more than a drone, drill and rod, "
+                            + "miners will query the recipe map");
+        }
+    }
+
+    /**
+     * Check if every space mining recipe is covered by the index. If not, some recipes need additional inputs and the
+     * recipe map has to be queried instead
+     *
+     * @return True if the index can be used to look up pools
+     */
+    public static boolean isComplete() {
+        if (recipesByDroneTier == null) {
+            build();
+        }
+        return isComplete;
+    }
+
+    /**
+     * Get the pool of asteroids that can be mined with the given configuration
+     *
+     * @param distance    Distance of the mining operation
+     * @param moduleTier Tier of the mining module
+     * @param voltage    Max input voltage of the mining module, recipes with a higher EU/t are left out
+     * @param droneMask  Bitmask of drone tiers for which drone, drill and rod are available
+     * @return Immutable weighted pool of all usable asteroids
+     */
+    public static WeightedAsteroidList getPool(int distance, int moduleTier, long voltage, int droneMask) {
+        if (recipesByDroneTier == null) {
+            build();
+        }
+        if (distance < 0 || distance > MAX_DISTANCE || moduleTier < 0) {
+            return EMPTY_POOL;
+        }
+        moduleTier = Math.min(moduleTier, maxModuleTier);
+        // Voltages between two recipe EU/t allow the same recipes, so they share their pools
+        long[] voltages = recipeVoltages;
+        int usableVoltages = Arrays.binarySearch(voltages, voltage);
+        usableVoltages = usableVoltages >= 0 ? usableVoltages + 1 : -usableVoltages - 1;
+        if (usableVoltages == 0) {
+            return EMPTY_POOL;
+        }
+        // Drones that can't mine anything here don't change the pool, so drop them to share more pools
+        droneMask &= usefulDroneMasks[moduleTier][distance];
+        if (droneMask == 0) {
+            return EMPTY_POOL;
+        }
+        final int tier = moduleTier;
+        final long maxEUt = voltages[usableVoltages - 1];
+        final int mask = droneMask;
+        return POOLS.computeIfAbsent(
+                getPoolKey(distance, tier, usableVoltages, mask),
+                key -> assemblePool(recipesByDroneTier[tier][distance], maxEUt, mask));
+    }
+
+    /**
+     * Get the tier of the drone that is used by a recipe
+     *
+     * @param recipe Space mining recipe
+     * @return Drone tier or -1 if the recipe needs anything else than the drone, drill and rod of its tier
+     */
+    public static int getDroneTier(IG_SpaceMiningRecipe recipe) {
+        if (recipe.mInputs == null || recipe.mInputs.length == 0 || recipe.mInputs[0] == null) {
+            return -1;
+        }
+        if (recipe.mFluidInputs != null && Arrays.stream(recipe.mFluidInputs).anyMatch(f -> f != null)) {
+            return -1;
+        }
+        Optional<Integer> tier = SpaceMiningRecipes.getTierFromDrone(recipe.mInputs[0]);
+        if (!tier.isPresent() || tier.get() >= DRONE_TIER_COUNT) {
+            return -1;
+        }
+        ItemStack[] tieredInputs = SpaceMiningRecipes.getTieredInputs(tier.get());
+        int i = 0;
+        for (ItemStack input : recipe.mInputs) {
+            if (input == null) {
+                continue;
+            }
+            if (i >= tieredInputs.length || !GTUtility.areStacksEqual(input, tieredInputs[i], true)
+                    || input.stackSize > Math.max(tieredInputs[i].stackSize, 1)) {
+                return -1;
+            }
+            i++;
+        }
+        return tier.get();
+    }
+
+    private static WeightedAsteroidList assemblePool(IG_SpaceMiningRecipe[][] cell, long voltage, int droneMask) {
+        List<IG_SpaceMiningRecipe> pool = new ArrayList<>();
+        for (int droneTier = 0; droneTier < cell.length; droneTier++) {
+            if ((droneMask & (1 << droneTier)) != 0) {
+                for (IG_SpaceMiningRecipe recipe : cell[droneTier]) {
+                    if (recipe.mEUt <= voltage) {
+                        pool.add(recipe);
+                    }
+                }
+            }
+        }
+        return pool.isEmpty() ? EMPTY_POOL : new WeightedAsteroidList(pool.stream());
+    }
+
+    private static long getPoolKey(int distance, int moduleTier, int usableVoltages, int droneMask) {
+        return ((long) distance << 48) | ((long) moduleTier << 40) | ((long) usableVoltages << 16) | droneMask;
+    }
+}
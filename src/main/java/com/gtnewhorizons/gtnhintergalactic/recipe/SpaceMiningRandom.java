@@ -0,0 +1,76 @@
+package com.gtnewhorizons.gtnhintergalactic.recipe;
+
+import java.util.Random;
+
+/**
+ * Small SplitMix64 random number generator for the space mining modules. Its whole state is a single long, so it can
+ * be saved to NBT, and a generator for every operation can be split off from a seed and an operation counter. This
+ * makes mining operations reproducible without sharing state with other machines.
+ */
+public class SpaceMiningRandom extends Random {
+
+    private static final long serialVersionUID = 1L;
+
+    /** Increment of the SplitMix64 state, the odd integer closest to 2^64 / phi */
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    /** Current state of the generator */
+    private long state;
+
+    /**
+     * Create a new generator
+     *
+     * @param seed Initial state
+     */
+    public SpaceMiningRandom(long seed) {
+        super(seed);
+        state = seed;
+    }
+
+    /**
+     * Create the generator for a single mining operation. Every (seed, operation) pair gives an independent stream
+     *
+     * @param seed      Seed of the mining module
+     * @param operation Index of the operation
+     * @return New generator for the operation
+     */
+    public static SpaceMiningRandom forOperation(long seed, long operation) {
+        return new SpaceMiningRandom(mix64(seed ^ mix64(operation * GOLDEN_GAMMA)));
+    }
+
+    /**
+     * Mix the bits of a long, finalizer of SplitMix64
+     *
+     * @param z Input value
+     * @return Mixed value
+     */
+    public static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * @return Current state of the generator, can be used to restore it with {@link #setSeed(long)}
+     */
+    public long getState() {
+        return state;
+    }
+
+    @Override
+    public synchronized void setSeed(long seed) {
+        // Also called by the constructor of Random
+        state = seed;
+    }
+
+    @Override
+    public long nextLong() {
+        state += GOLDEN_GAMMA;
+        return mix64(state);
+    }
+
+    @Override
+    protected int next(int bits) {
+        return (int) (nextLong() >>> (64 - bits));
+    }
+}
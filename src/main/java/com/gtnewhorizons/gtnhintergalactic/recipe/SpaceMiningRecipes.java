@@ -2,10 +2,12 @@ package com.gtnewhorizons.gtnhintergalactic.recipe;
 
 import static gregtech.api.util.GTRecipeBuilder.SECONDS;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Random;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -24,6 +26,7 @@ import gregtech.api.enums.ItemList;
 import gregtech.api.enums.Materials;
 import gregtech.api.enums.OrePrefixes;
 import gregtech.api.enums.TierEU;
+import gregtech.api.objects.XSTR;
 import gregtech.api.util.GTModHandler;
 import gregtech.api.util.GTOreDictUnificator;
 import gregtech.api.util.GTUtility;
@@ -1004,7 +1007,8 @@ public class SpaceMiningRecipes {
 
     /**
      * A list of space mining recipes with precomputed total weight and total "time density", usually cached in the
-     * space mining module
+     * space mining module. Recipes are drawn from a Walker/Vose alias table, so a draw costs O(1) regardless of the
+     * pool size
      * 
      * @author hacatu
      */
@@ -1013,26 +1017,101 @@ public class SpaceMiningRecipes {
         public List<IG_SpaceMiningRecipe> recipes;
         public int totalWeight;
         public int totalTimedensity;
+        /** Probability to keep the recipe of a column of the alias table instead of taking its alias */
+        private final double[] aliasProbabilities;
+        /** Index of the recipe that fills up the remainder of a column of the alias table */
+        private final int[] aliases;
 
         public WeightedAsteroidList(Stream<IG_SpaceMiningRecipe> inRecipes) {
-            recipes = inRecipes.collect(Collectors.toList());
+            recipes = Collections.unmodifiableList(inRecipes.collect(Collectors.toList()));
             for (IG_SpaceMiningRecipe recipe : recipes) {
-                totalWeight += recipe.recipeWeight;
-                totalTimedensity += recipe.recipeWeight * recipe.mDuration;
+                // Negative weights can never be drawn, so they count as zero like in the alias table
+                int weight = Math.max(recipe.recipeWeight, 0);
+                totalWeight += weight;
+                totalTimedensity += weight * recipe.mDuration;
+            }
+            int n = recipes.size();
+            aliasProbabilities = new double[n];
+            aliases = new int[n];
+            if (n > 0 && totalWeight > 0) {
+                buildAliasTable(n);
             }
         }
 
-        public IG_SpaceMiningRecipe getRandom() {
-            int i = 0;
-            double r = Math.random() * totalWeight;
-            while (i < recipes.size() - 1) {
-                int weight = recipes.get(i).recipeWeight;
-                if (r <= weight) {
-                    break;
+        /**
+         * Build the alias table with Vose's method. Weights are scaled by the number of recipes, so that the average
+         * column holds exactly totalWeight and all bookkeeping can be done in exact integer arithmetic
+         *
+         * @param n Number of recipes in this list
+         */
+        private void buildAliasTable(int n) {
+            long[] scaledWeights = new long[n];
+            int[] small = new int[n];
+            int[] large = new int[n];
+            int smallCount = 0;
+            int largeCount = 0;
+            for (int i = 0; i < n; i++) {
+                scaledWeights[i] = (long) Math.max(recipes.get(i).recipeWeight, 0) * n;
+                if (scaledWeights[i] < totalWeight) {
+                    small[smallCount++] = i;
+                } else {
+                    large[largeCount++] = i;
+                }
+            }
+            while (smallCount > 0 && largeCount > 0) {
+                int s = small[--smallCount];
+                int l = large[--largeCount];
+                aliasProbabilities[s] = (double) scaledWeights[s] / totalWeight;
+                aliases[s] = l;
+                // The large entry donates whatever is missing to fill up the column of the small entry
+                scaledWeights[l] -= totalWeight - scaledWeights[s];
+                if (scaledWeights[l] < totalWeight) {
+                    small[smallCount++] = l;
+                } else {
+                    large[largeCount++] = l;
                 }
-                r -= weight;
             }
-            return recipes.get(i);
+            // Whatever is left over fills its own column completely
+            while (largeCount > 0) {
+                aliasProbabilities[large[--largeCount]] = 1D;
+            }
+            while (smallCount > 0) {
+                aliasProbabilities[small[--smallCount]] = 1D;
+            }
+        }
+
+        /**
+         * Draw a random recipe from this list, the chance of each recipe is recipeWeight / totalWeight
+         *
+         * @return Random recipe or null if the list is empty
+         */
+        public IG_SpaceMiningRecipe getRandom() {
+            return getRandom(XSTR.XSTR_INSTANCE);
+        }
+
+        /**
+         * Draw a random recipe from this list, the chance of each recipe is recipeWeight / totalWeight
+         *
+         * @param random Random number generator used for the draw
+         * @return Random recipe or null if the list is empty
+         */
+        public IG_SpaceMiningRecipe getRandom(Random random) {
+            int i = getRandomIndex(random);
+            return i < 0 ? null : recipes.get(i);
+        }
+
+        /**
+         * Draw the index of a random recipe from this list, the chance of each recipe is recipeWeight / totalWeight
+         *
+         * @param random Random number generator used for the draw
+         * @return Index of the random recipe in recipes or -1 if the list is empty
+         */
+        public int getRandomIndex(Random random) {
+            if (recipes.isEmpty() || totalWeight <= 0) {
+                return -1;
+            }
+            int i = random.nextInt(recipes.size());
+            return random.nextDouble() < aliasProbabilities[i] ? i : aliases[i];
         }
     }
 }
@@ -1,80 +1,383 @@
 package com.gtnewhorizons.gtnhintergalactic.recipe;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Map;
 
+import net.minecraftforge.fluids.Fluid;
 import net.minecraftforge.fluids.FluidRegistry;
 import net.minecraftforge.fluids.FluidStack;
 
 import org.apache.commons.lang3.tuple.Pair;
 
+import com.gtnewhorizons.gtnhintergalactic.GTNHIntergalactic;
+import com.gtnewhorizons.gtnhintergalactic.config.IGConfig;
+
 import bartworks.system.material.WerkstoffLoader;
 import cpw.mods.fml.common.Loader;
 import galaxyspace.BarnardsSystem.BRFluids;
 import gregtech.api.enums.Materials;
 
 /**
- * Available fluids for space pumping are defined here
+ * Available fluids for space pumping are defined here. The fluids are stored in a dense table indexed by planet type
+ * and gas type, so the pump modules look up their recipes without boxing any keys
  *
  * @author minecraft7771
  */
 public class SpacePumpingRecipes {
 
-    /** Map containing all pumpable fluids */
-    public static final Map<Pair<Integer, Integer>, FluidStack> RECIPES = new HashMap<>();
+    /** Current recipe tables. They are never changed once published, every change publishes new tables */
+    private static volatile RecipeTables tables = new RecipeTables();
+
+    /**
+     * Read-only view of all pumpable fluids. Every change publishes a new view, so a view that is being read never
+     * changes
+     *
+     * @deprecated Use {@link #getRecipe(int, int)} or {@link #getRecipes()} for lookups and
+     *             {@link #addPumpingRecipe(int, int, FluidStack)} to add recipes
+     */
+    @Deprecated
+    public static volatile Map<Pair<Integer, Integer>, FluidStack> RECIPES = Collections.emptyMap();
 
     /**
      * Add all pumping recipes to the module
      */
     public static void addPumpingRecipes() {
+        for (PumpingRecipe recipe : getDefaultRecipes()) {
+            addPumpingRecipe(recipe.planetType, recipe.gasType, recipe.fluid);
+        }
+    }
+
+    /**
+     * Get the default recipes of the module without adding them
+     *
+     * @return Default recipes, the fluid of a recipe is null if its fluid doesn't exist
+     */
+    public static List<PumpingRecipe> getDefaultRecipes() {
+        List<PumpingRecipe> recipes = new ArrayList<>();
         // T2
-        RECIPES.put(Pair.of(2, 1), Materials.Chlorobenzene.getFluid(896000));
+        recipes.add(new PumpingRecipe(2, 1, Materials.Chlorobenzene.getFluid(896000)));
 
         // T3 (the end?)
-        RECIPES.put(Pair.of(3, 1), FluidRegistry.getFluidStack("endergoo", 32000));
+        recipes.add(new PumpingRecipe(3, 1, FluidRegistry.getFluidStack("endergoo", 32000)));
 
         // T4
-        RECIPES.put(Pair.of(4, 1), Materials.SulfuricAcid.getFluid(784000));
-        RECIPES.put(Pair.of(4, 2), Materials.Iron.getMolten(896000));
-        RECIPES.put(Pair.of(4, 3), Materials.Oil.getFluid(1400000));
-        RECIPES.put(Pair.of(4, 4), Materials.OilHeavy.getFluid(1792000));
+        recipes.add(new PumpingRecipe(4, 1, Materials.SulfuricAcid.getFluid(784000)));
+        recipes.add(new PumpingRecipe(4, 2, Materials.Iron.getMolten(896000)));
+        recipes.add(new PumpingRecipe(4, 3, Materials.Oil.getFluid(1400000)));
+        recipes.add(new PumpingRecipe(4, 4, Materials.OilHeavy.getFluid(1792000)));
 
         // T5
-        RECIPES.put(Pair.of(5, 1), Materials.CarbonMonoxide.getGas(4480000));
-        RECIPES.put(Pair.of(5, 2), Materials.Helium_3.getGas(2800000));
-        RECIPES.put(Pair.of(5, 3), Materials.SaltWater.getFluid(2800000));
-        RECIPES.put(Pair.of(5, 4), Materials.Helium.getGas(1400000));
-        RECIPES.put(Pair.of(5, 5), Materials.LiquidOxygen.getGas(896000));
-        RECIPES.put(Pair.of(5, 7), Materials.Argon.getGas(32000));
-        RECIPES.put(Pair.of(5, 9), Materials.Methane.getGas(1792000));
+        recipes.add(new PumpingRecipe(5, 1, Materials.CarbonMonoxide.getGas(4480000)));
+        recipes.add(new PumpingRecipe(5, 2, Materials.Helium_3.getGas(2800000)));
+        recipes.add(new PumpingRecipe(5, 3, Materials.SaltWater.getFluid(2800000)));
+        recipes.add(new PumpingRecipe(5, 4, Materials.Helium.getGas(1400000)));
+        recipes.add(new PumpingRecipe(5, 5, Materials.LiquidOxygen.getGas(896000)));
+        recipes.add(new PumpingRecipe(5, 7, Materials.Argon.getGas(32000)));
+        recipes.add(new PumpingRecipe(5, 9, Materials.Methane.getGas(1792000)));
 
         // T6
-        RECIPES.put(Pair.of(6, 1), Materials.Deuterium.getGas(1568000));
-        RECIPES.put(Pair.of(6, 2), Materials.Tritium.getGas(240000));
-        RECIPES.put(Pair.of(6, 3), Materials.Ammonia.getGas(240000));
-        RECIPES.put(Pair.of(6, 5), Materials.Ethylene.getGas(1792000));
+        recipes.add(new PumpingRecipe(6, 1, Materials.Deuterium.getGas(1568000)));
+        recipes.add(new PumpingRecipe(6, 2, Materials.Tritium.getGas(240000)));
+        recipes.add(new PumpingRecipe(6, 3, Materials.Ammonia.getGas(240000)));
+        recipes.add(new PumpingRecipe(6, 5, Materials.Ethylene.getGas(1792000)));
 
         // T7
-        RECIPES.put(Pair.of(7, 1), Materials.HydrofluoricAcid.getFluid(672000));
-        RECIPES.put(Pair.of(7, 2), Materials.Fluorine.getGas(1792000));
-        RECIPES.put(Pair.of(7, 3), Materials.Nitrogen.getGas(1792000));
-        RECIPES.put(Pair.of(7, 4), Materials.Oxygen.getGas(1792000));
+        recipes.add(new PumpingRecipe(7, 1, Materials.HydrofluoricAcid.getFluid(672000)));
+        recipes.add(new PumpingRecipe(7, 2, Materials.Fluorine.getGas(1792000)));
+        recipes.add(new PumpingRecipe(7, 3, Materials.Nitrogen.getGas(1792000)));
+        recipes.add(new PumpingRecipe(7, 4, Materials.Oxygen.getGas(1792000)));
 
         // T8
-        RECIPES.put(Pair.of(8, 1), Materials.Hydrogen.getGas(1568000));
-        RECIPES.put(Pair.of(8, 2), Materials.LiquidAir.getFluid(875000));
-        RECIPES.put(Pair.of(8, 3), Materials.Copper.getMolten(672000));
-        RECIPES.put(Pair.of(8, 4), new FluidStack(BRFluids.UnknowWater, 672000));
-        RECIPES.put(Pair.of(8, 5), FluidRegistry.getFluidStack("ic2distilledwater", 17920000));
-        RECIPES.put(Pair.of(8, 6), Materials.Radon.getGas(64000));
+        recipes.add(new PumpingRecipe(8, 1, Materials.Hydrogen.getGas(1568000)));
+        recipes.add(new PumpingRecipe(8, 2, Materials.LiquidAir.getFluid(875000)));
+        recipes.add(new PumpingRecipe(8, 3, Materials.Copper.getMolten(672000)));
+        recipes.add(new PumpingRecipe(8, 4, new FluidStack(BRFluids.UnknowWater, 672000)));
+        recipes.add(new PumpingRecipe(8, 5, FluidRegistry.getFluidStack("ic2distilledwater", 17920000)));
+        recipes.add(new PumpingRecipe(8, 6, Materials.Radon.getGas(64000)));
 
         if (Loader.isModLoaded("bartworks")) {
             // T5
-            RECIPES.put(Pair.of(5, 6), WerkstoffLoader.Neon.getFluidOrGas(32000));
-            RECIPES.put(Pair.of(5, 8), WerkstoffLoader.Krypton.getFluidOrGas(8000));
+            recipes.add(new PumpingRecipe(5, 6, WerkstoffLoader.Neon.getFluidOrGas(32000)));
+            recipes.add(new PumpingRecipe(5, 8, WerkstoffLoader.Krypton.getFluidOrGas(8000)));
 
             // T6
-            RECIPES.put(Pair.of(6, 4), WerkstoffLoader.Xenon.getFluidOrGas(16000));
+            recipes.add(new PumpingRecipe(6, 4, WerkstoffLoader.Xenon.getFluidOrGas(16000)));
+        }
+        return recipes;
+    }
+
+    /**
+     * Add the additional pumping recipes from the config, they replace the recipes of the defaults or the recipe file
+     */
+    public static void addConfigRecipes() {
+        for (PumpingRecipe recipe : getConfigRecipes()) {
+            addPumpingRecipe(recipe.planetType, recipe.gasType, recipe.fluid);
+        }
+    }
+
+    /**
+     * Get the additional pumping recipes from the config without adding them. Invalid entries are skipped
+     *
+     * @return Recipes of the config
+     */
+    public static List<PumpingRecipe> getConfigRecipes() {
+        List<PumpingRecipe> recipes = new ArrayList<>();
+        for (String entry : IGConfig.spacePump.additionalRecipes) {
+            PumpingRecipe recipe = parseConfigEntry(entry);
+            if (recipe != null) {
+                recipes.add(recipe);
+            }
+        }
+        return recipes;
+    }
+
+    /**
+     * Add a pumping recipe. A recipe for an already used planet and gas type replaces the old recipe
+     *
+     * @param planetType Planet type of the recipe, at least 1
+     * @param gasType    Gas type of the recipe, at least 1
+     * @param fluid      Fluid that one parallel pumps per second
+     * @return True if the recipe was added, false if the fluid doesn't exist
+     */
+    public static synchronized boolean addPumpingRecipe(int planetType, int gasType, FluidStack fluid) {
+        if (!isValidRecipe(planetType, gasType, fluid)) {
+            return false;
+        }
+        // The published tables may be read at any time, so the recipe is added to a copy
+        RecipeTables newTables = tables.copy();
+        newTables.put(planetType, gasType, fluid.copy());
+        publish(newTables);
+        return true;
+    }
+
+    /**
+     * Replace all pumping recipes at once. The new recipes are collected first and then swapped in, so pumps never see
+     * a partly loaded table. Invalid recipes are skipped, later recipes replace earlier ones for the same planet and
+     * gas type
+     *
+     * @param recipes New recipes
+     * @return Number of recipes that were skipped
+     */
+    public static int replaceRecipes(List<PumpingRecipe> recipes) {
+        RecipeTables newTables = new RecipeTables();
+        int skipped = 0;
+        for (PumpingRecipe recipe : recipes) {
+            if (isValidRecipe(recipe.planetType, recipe.gasType, recipe.fluid)) {
+                newTables.put(recipe.planetType, recipe.gasType, recipe.fluid.copy());
+            } else {
+                skipped++;
+            }
+        }
+        synchronized (SpacePumpingRecipes.class) {
+            publish(newTables);
+        }
+        return skipped;
+    }
+
+    /**
+     * Remove all pumping recipes
+     */
+    public static void clearRecipes() {
+        replaceRecipes(Collections.emptyList());
+    }
+
+    /**
+     * Check the planet type, gas type and fluid of a recipe
+     *
+     * @param planetType Planet type of the recipe
+     * @param gasType    Gas type of the recipe
+     * @param fluid      Pumped fluid
+     * @return True if the recipe can be added, false if the fluid doesn't exist
+     */
+    private static boolean isValidRecipe(int planetType, int gasType, FluidStack fluid) {
+        if (planetType <= 0 || gasType <= 0) {
+            throw new IllegalArgumentException(
+                    "Pumping recipe needs a positive planet and gas type, got " + planetType + ", " + gasType);
+        }
+        if (fluid == null || fluid.getFluid() == null || fluid.amount <= 0) {
+            GTNHIntergalactic.LOG.warn(
+                    "Ignoring pumping recipe for planet type {} and gas type {}, its fluid is missing",
+                    planetType,
+                    gasType);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Make new recipe tables visible to all readers. The tables must not be changed afterwards
+     *
+     * @param newTables Tables to publish
+     */
+    private static void publish(RecipeTables newTables) {
+        tables = newTables;
+        RECIPES = Collections.unmodifiableMap(newTables.recipeMap);
+    }
+
+    /**
+     * Get the fluid that is pumped for a planet and gas type
+     *
+     * @param planetType Planet type
+     * @param gasType    Gas type
+     * @return Pumped fluid, which must not be modified, or null if the combination has no recipe
+     */
+    public static FluidStack getRecipe(int planetType, int gasType) {
+        FluidStack[][] currentTable = tables.table;
+        if (planetType < 0 || planetType >= currentTable.length) {
+            return null;
+        }
+        FluidStack[] gases = currentTable[planetType];
+        return gasType >= 0 && gasType < gases.length ? gases[gasType] : null;
+    }
+
+    /**
+     * @return All pumping recipes, sorted by planet type and gas type
+     */
+    public static List<PumpingRecipe> getRecipes() {
+        FluidStack[][] currentTable = tables.table;
+        List<PumpingRecipe> recipes = new ArrayList<>();
+        for (int planetType = 0; planetType < currentTable.length; planetType++) {
+            for (int gasType = 0; gasType < currentTable[planetType].length; gasType++) {
+                FluidStack fluid = currentTable[planetType][gasType];
+                if (fluid != null) {
+                    recipes.add(new PumpingRecipe(planetType, gasType, fluid));
+                }
+            }
+        }
+        return recipes;
+    }
+
+    /**
+     * Get all recipes that pump a fluid
+     *
+     * @param fluid Pumped fluid
+     * @return Recipes that pump the fluid, empty if there are none
+     */
+    public static List<PumpingRecipe> getRecipesProducing(Fluid fluid) {
+        List<PumpingRecipe> recipes = tables.recipesByFluid.get(fluid);
+        return recipes != null ? new ArrayList<>(recipes) : Collections.emptyList();
+    }
+
+    /**
+     * Parse a config entry of the form planetType,gasType,fluidName,amount
+     *
+     * @param entry Config entry
+     * @return Pumping recipe or null if the entry is invalid
+     */
+    private static PumpingRecipe parseConfigEntry(String entry) {
+        String[] parts = entry.split(",");
+        if (parts.length != 4) {
+            GTNHIntergalactic.LOG.warn("Ignoring invalid pumping recipe entry \"{}\"", entry);
+            return null;
+        }
+        Fluid fluid = FluidRegistry.getFluid(parts[2].trim());
+        if (fluid == null) {
+            GTNHIntergalactic.LOG.warn("Ignoring pumping recipe entry \"{}\", the fluid doesn't exist", entry);
+            return null;
+        }
+        try {
+            int planetType = Integer.parseInt(parts[0].trim());
+            int gasType = Integer.parseInt(parts[1].trim());
+            FluidStack stack = new FluidStack(fluid, Integer.parseInt(parts[3].trim()));
+            return isValidRecipe(planetType, gasType, stack) ? new PumpingRecipe(planetType, gasType, stack) : null;
+        } catch (IllegalArgumentException e) {
+            // Also catches NumberFormatException
+            GTNHIntergalactic.LOG.warn("Ignoring invalid pumping recipe entry \"{}\": {}", entry, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Lookup tables of a set of pumping recipes. Tables are only filled before they are published
+     */
+    private static final class RecipeTables {
+
+        /** Pumped fluid by [planetType][gasType], null if the combination has no recipe */
+        private FluidStack[][] table = new FluidStack[0][0];
+        /** Pumping recipes by their output fluid */
+        private final Map<Fluid, List<PumpingRecipe>> recipesByFluid = new IdentityHashMap<>();
+        /** Pumped fluid by planet and gas type, backing {@link #RECIPES} */
+        private final Map<Pair<Integer, Integer>, FluidStack> recipeMap = new HashMap<>();
+
+        /**
+         * @return Copy of these tables that can be changed without affecting them
+         */
+        private RecipeTables copy() {
+            RecipeTables copy = new RecipeTables();
+            copy.table = new FluidStack[table.length][];
+            for (int i = 0; i < table.length; i++) {
+                copy.table[i] = table[i].clone();
+            }
+            for (Map.Entry<Fluid, List<PumpingRecipe>> entry : recipesByFluid.entrySet()) {
+                copy.recipesByFluid.put(entry.getKey(), new ArrayList<>(entry.getValue()));
+            }
+            copy.recipeMap.putAll(recipeMap);
+            return copy;
+        }
+
+        /**
+         * Put a recipe into the tables, replacing the recipe of the same planet and gas type
+         *
+         * @param planetType Planet type of the recipe
+         * @param gasType    Gas type of the recipe
+         * @param fluid      Pumped fluid, which is stored as it is
+         */
+        private void put(int planetType, int gasType, FluidStack fluid) {
+            if (planetType >= table.length) {
+                table = Arrays.copyOf(table, planetType + 1);
+                for (int i = 0; i < table.length; i++) {
+                    if (table[i] == null) {
+                        table[i] = new FluidStack[0];
+                    }
+                }
+            }
+            if (gasType >= table[planetType].length) {
+                table[planetType] = Arrays.copyOf(table[planetType], gasType + 1);
+            }
+
+            FluidStack replaced = table[planetType][gasType];
+            if (replaced != null) {
+                List<PumpingRecipe> recipes = recipesByFluid.get(replaced.getFluid());
+                recipes.removeIf(recipe -> recipe.planetType == planetType && recipe.gasType == gasType);
+                if (recipes.isEmpty()) {
+                    recipesByFluid.remove(replaced.getFluid());
+                }
+            }
+            table[planetType][gasType] = fluid;
+            recipesByFluid.computeIfAbsent(fluid.getFluid(), k -> new ArrayList<>())
+                    .add(new PumpingRecipe(planetType, gasType, fluid));
+            recipeMap.put(Pair.of(planetType, gasType), fluid);
+        }
+    }
+
+    /**
+     * Fluid that is pumped for a planet and gas type
+     */
+    public static class PumpingRecipe {
+
+        /** Planet type of the recipe */
+        public final int planetType;
+        /** Gas type of the recipe */
+        public final int gasType;
+        /** Fluid that one parallel pumps per second, must not be modified */
+        public final FluidStack fluid;
+
+        /**
+         * Create a new pumping recipe
+         *
+         * @param planetType Planet type of the recipe
+         * @param gasType    Gas type of the recipe
+         * @param fluid      Fluid that one parallel pumps per second
+         */
+        public PumpingRecipe(int planetType, int gasType, FluidStack fluid) {
+            this.planetType = planetType;
+            this.gasType = gasType;
+            this.fluid = fluid;
         }
     }
 }
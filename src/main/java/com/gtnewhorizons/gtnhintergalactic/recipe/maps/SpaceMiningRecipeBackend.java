@@ -0,0 +1,130 @@
+package com.gtnewhorizons.gtnhintergalactic.recipe.maps;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import javax.annotation.ParametersAreNonnullByDefault;
+
+import com.gtnewhorizons.gtnhintergalactic.item.ItemMiningDrones;
+import com.gtnewhorizons.gtnhintergalactic.recipe.IG_SpaceMiningRecipe;
+import com.gtnewhorizons.gtnhintergalactic.recipe.SpaceMiningRecipes;
+
+import gregtech.api.recipe.RecipeMapBackend;
+import gregtech.api.recipe.RecipeMapBackendPropertiesBuilder;
+import gregtech.api.util.GTRecipe;
+import gregtech.api.util.MethodsReturnNonnullByDefault;
+
+/**
+ * Recipe map backend of the space mining recipes. Next to the generic item index that NEI and the recipe map queries
+ * use, every mining recipe is indexed by the tier of its drone and sorted by its min distance. This answers the
+ * question which asteroids a set of drones can reach at a distance without hashing any inputs.
+ */
+@ParametersAreNonnullByDefault
+@MethodsReturnNonnullByDefault
+public class SpaceMiningRecipeBackend extends RecipeMapBackend {
+
+    /** Drone mask that contains every drone tier */
+    public static final int ALL_DRONES = -1;
+
+    /** Order in which the recipes of a drone tier are stored */
+    private static final Comparator<IG_SpaceMiningRecipe> DISTANCE_ORDER = Comparator
+            .comparingInt(recipe -> recipe.minDistance);
+
+    /** Mining recipes by drone tier, sorted by their min distance */
+    private final List<List<IG_SpaceMiningRecipe>> recipesByDroneTier = new ArrayList<>();
+    /** Mining recipes without a known drone as first input, these are checked for every drone mask */
+    private final List<IG_SpaceMiningRecipe> recipesWithoutDrone = new ArrayList<>();
+
+    public SpaceMiningRecipeBackend(RecipeMapBackendPropertiesBuilder propertiesBuilder) {
+        super(propertiesBuilder);
+        for (int i = 0; i < ItemMiningDrones.DroneTiers.values().length; i++) {
+            recipesByDroneTier.add(new ArrayList<>());
+        }
+    }
+
+    @Override
+    public GTRecipe compileRecipe(GTRecipe recipe) {
+        GTRecipe compiled = super.compileRecipe(recipe);
+        if (compiled instanceof IG_SpaceMiningRecipe miningRecipe) {
+            index(miningRecipe);
+        }
+        return compiled;
+    }
+
+    @Override
+    public void reInit() {
+        super.reInit();
+        // Unification can change the inputs of the recipes, so the drone tiers are resolved again
+        recipesByDroneTier.forEach(List::clear);
+        recipesWithoutDrone.clear();
+        for (GTRecipe recipe : getAllRecipes()) {
+            if (recipe instanceof IG_SpaceMiningRecipe miningRecipe) {
+                index(miningRecipe);
+            }
+        }
+    }
+
+    /**
+     * Find all recipes that use one of the given drones and can reach the given distance. The other inputs of the
+     * recipes are not checked
+     *
+     * @param droneMask  Bitmask of drone tiers, {@link #ALL_DRONES} for every tier
+     * @param distance   Distance of the mining operation
+     * @param moduleTier Tier of the mining module
+     * @return Recipes that can be mined, grouped by drone tier and sorted by min distance within a tier
+     */
+    public Stream<IG_SpaceMiningRecipe> findRecipes(int droneMask, int distance, int moduleTier) {
+        Stream.Builder<IG_SpaceMiningRecipe> result = Stream.builder();
+        for (int droneTier = 0; droneTier < recipesByDroneTier.size(); droneTier++) {
+            if ((droneMask & (1 << droneTier)) != 0) {
+                addReachable(recipesByDroneTier.get(droneTier), distance, moduleTier, result);
+            }
+        }
+        addReachable(recipesWithoutDrone, distance, moduleTier, result);
+        return result.build();
+    }
+
+    /**
+     * Get all recipes of a drone tier
+     *
+     * @param droneTier Tier of the drone
+     * @return Recipes of the tier, sorted by min distance
+     */
+    public List<IG_SpaceMiningRecipe> getRecipesOfDroneTier(int droneTier) {
+        if (droneTier < 0 || droneTier >= recipesByDroneTier.size()) {
+            return new ArrayList<>();
+        }
+        return new ArrayList<>(recipesByDroneTier.get(droneTier));
+    }
+
+    private static void addReachable(List<IG_SpaceMiningRecipe> recipes, int distance, int moduleTier,
+            Stream.Builder<IG_SpaceMiningRecipe> result) {
+        for (IG_SpaceMiningRecipe recipe : recipes) {
+            // Sorted by min distance, so no later recipe can reach the distance either
+            if (recipe.minDistance > distance) {
+                break;
+            }
+            if (recipe.maxDistance >= distance && recipe.mSpecialValue <= moduleTier) {
+                result.add(recipe);
+            }
+        }
+    }
+
+    private void index(IG_SpaceMiningRecipe recipe) {
+        Optional<Integer> droneTier = recipe.mInputs.length > 0 && recipe.mInputs[0] != null
+                ? SpaceMiningRecipes.getTierFromDrone(recipe.mInputs[0])
+                : Optional.empty();
+        List<IG_SpaceMiningRecipe> recipes = droneTier.isPresent() && droneTier.get() < recipesByDroneTier.size()
+                ? recipesByDroneTier.get(droneTier.get())
+                : recipesWithoutDrone;
+        // Insert after all recipes with the same min distance, so recipes keep their registration order
+        int index = recipes.size();
+        while (index > 0 && DISTANCE_ORDER.compare(recipes.get(index - 1), recipe) > 0) {
+            index--;
+        }
+        recipes.add(index, recipe);
+    }
+}
@@ -8,18 +8,21 @@ import static net.minecraft.util.EnumChatFormatting.RED;
 import static net.minecraft.util.EnumChatFormatting.RESET;
 import static net.minecraft.util.EnumChatFormatting.YELLOW;
 
+import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Map;
-import java.util.Objects;
+import java.util.List;
 
 import net.minecraft.block.Block;
 import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.item.Item;
 import net.minecraft.item.ItemBlock;
 import net.minecraft.item.ItemStack;
 import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.server.MinecraftServer;
 import net.minecraft.tileentity.TileEntity;
 import net.minecraft.util.IIcon;
 import net.minecraft.util.MathHelper;
+import net.minecraft.util.StatCollector;
 import net.minecraft.world.ChunkCoordIntPair;
 import net.minecraft.world.World;
 import net.minecraftforge.common.util.ForgeDirection;
@@ -35,6 +38,7 @@ import com.gtnewhorizon.structurelib.structure.IStructureElement;
 import com.gtnewhorizon.structurelib.structure.StructureDefinition;
 import com.gtnewhorizon.structurelib.structure.StructureUtility;
 import com.gtnewhorizons.gtnhintergalactic.client.IGTextures;
+import com.gtnewhorizons.gtnhintergalactic.config.IGConfig;
 import com.gtnewhorizons.gtnhintergalactic.recipe.GasSiphonRecipes;
 
 import bartworks.client.textures.PrefixTextureLinker;
@@ -46,6 +50,7 @@ import gregtech.api.enums.ItemList;
 import gregtech.api.enums.Materials;
 import gregtech.api.enums.OrePrefixes;
 import gregtech.api.enums.Textures;
+import gregtech.api.enums.VoidingMode;
 import gregtech.api.interfaces.IChunkLoader;
 import gregtech.api.interfaces.ITexture;
 import gregtech.api.interfaces.metatileentity.IMetaTileEntity;
@@ -61,6 +66,7 @@ import gregtech.api.util.GTModHandler;
 import gregtech.api.util.GTStructureUtility;
 import gregtech.api.util.GTUtility;
 import gregtech.api.util.MultiblockTooltipBuilder;
+import gregtech.api.util.VoidProtectionHelper;
 import gregtech.common.blocks.BlockCasings1;
 import micdoodle8.mods.galacticraft.api.world.IOrbitDimension;
 import micdoodle8.mods.galacticraft.core.util.GCCoreUtil;
@@ -148,6 +154,33 @@ public class TileEntityPlanetaryGasSiphon extends MTEEnhancedMultiBlockBase<Tile
     private ChunkCoordIntPair mCurrentChunk = null;
     /** Flag if the chunk of the multi needs to be reloaded */
     private boolean mWorkChunkNeedsReload = true;
+    /** Flag if the production while the chunk is unloaded is credited when it is loaded again */
+    private boolean mLedgerEnabled = false;
+    /** Production that was recorded when the chunk was unloaded, null if there is nothing to credit */
+    private ProductionLedger ledger;
+    /** Number of mining pipes in the controller and the input bus at the last count */
+    private int numPipes;
+    /** Depth of the circuit in the controller or the input bus at the last count, 0 if there is none */
+    private int circuitDepth;
+    /** Flag if the pipes and the depth have to be recounted */
+    private boolean inventoryDirty = true;
+    /** Slots of the counted pipe and circuit stacks, slots of the controller are encoded as -slot - 1 */
+    private final List<Integer> trackedSlots = new ArrayList<>();
+    /** Counted pipe and circuit stacks */
+    private final List<ItemStack> trackedStacks = new ArrayList<>();
+    /** Stack sizes of the counted stacks */
+    private final List<Integer> trackedSizes = new ArrayList<>();
+
+    /** Recipe of the last check */
+    private ResolvedRecipe resolvedRecipe;
+
+    /**
+     * Interval in which the pipes and the depth are recounted as a safety net. The change flag of the input bus is
+     * reset at the end of its own tick, so a change right before the tick of the bus can be missed
+     */
+    private static final int INVENTORY_RESYNC_INTERVAL = 1200;
+    /** Mining pipe item, resolved on first use */
+    private static Item miningPipe;
 
     /**
      * Construct this machine using the blueprint in creative
@@ -215,7 +248,7 @@ public class TileEntityPlanetaryGasSiphon extends MTEEnhancedMultiBlockBase<Tile
      */
     @Override
     public ChunkCoordIntPair getActiveChunk() {
-        return mCurrentChunk;
+        return mLedgerEnabled ? null : mCurrentChunk;
     }
 
     /**
@@ -278,45 +311,12 @@ public class TileEntityPlanetaryGasSiphon extends MTEEnhancedMultiBlockBase<Tile
             return SimpleCheckRecipeResult.ofFailure("no_space_station");
         }
 
-        Map<Integer, FluidStack> planetRecipes = GasSiphonRecipes.RECIPES.get(provider.getPlanetToOrbit());
-
-        // return early if there are no recipes for the planet the station is orbiting
-        if (planetRecipes == null) {
-            resetMachine();
-            return CheckRecipeResultRegistry.NO_RECIPE;
-        }
-
+        // the pipes and the depth are only recounted if the controller or the bus changed
         MTEHatchInputBus bus = mInputBusses.get(0);
-        int numPipes = 0;
-
-        // count mining pipes, get depth
-        for (int i = 0; i < mInventory.length; i++) {
-            ItemStack stack = mInventory[i];
-            if (stack == null) {
-                continue;
-            }
-            if (stack.getItem() == ItemList.Circuit_Integrated.getItem()) {
-                depth = stack.getItemDamage();
-                continue;
-            }
-            if (Objects.equals(stack.getItem(), GTModHandler.getIC2Item("miningPipe", 0).getItem())) {
-                numPipes += stack.stackSize;
-            }
-        }
-
-        for (int i = 0; i < bus.getBaseMetaTileEntity().getSizeInventory(); i++) {
-            ItemStack stack = bus.getBaseMetaTileEntity().getStackInSlot(i);
-            if (stack == null) {
-                continue;
-            }
-            if (stack.getItem() == ItemList.Circuit_Integrated.getItem()) {
-                depth = stack.getItemDamage();
-                continue;
-            }
-            if (Objects.equals(stack.getItem(), GTModHandler.getIC2Item("miningPipe", 0).getItem())) {
-                numPipes += stack.stackSize;
-            }
+        if (needsRecount(bus)) {
+            countPipesAndDepth(bus);
         }
+        depth = circuitDepth;
 
         if (depth == 0) {
             resetMachine();
@@ -329,46 +329,175 @@ public class TileEntityPlanetaryGasSiphon extends MTEEnhancedMultiBlockBase<Tile
             return SimpleCheckRecipeResult.ofFailure("no_mining_pipe");
         }
 
-        FluidStack recipeFluid = planetRecipes.get(depth);
-
-        // return early if invalid depth
-        if (recipeFluid == null) {
+        ResolvedRecipe recipe = resolveRecipe(provider, depth);
+        if (recipe.failure != null) {
             resetMachine();
-            return SimpleCheckRecipeResult.ofFailure("invalid_depth");
+            return recipe.failure;
         }
 
-        if (!canOutputAll(new FluidStack[] { recipeFluid })) {
+        // produce several seconds of gas at once in batch mode, as long as the output hatch can take all of it
+        int batchSize = 1;
+        if (isBatchModeEnabled()) {
+            int maxBatchSize = Integer.MAX_VALUE / Math.max(recipe.fluid.amount, 1);
+            batchSize = Math.max(1, Math.min(IGConfig.gasSiphon.batchSeconds, maxBatchSize));
+        }
+        VoidProtectionHelper voidProtection = new VoidProtectionHelper().setMachine(this, false, true)
+                .setFluidOutputs(new FluidStack[] { recipe.fluid }).setMaxParallel(batchSize).build();
+        batchSize = voidProtection.getMaxParallel();
+        if (batchSize < 1) {
             return CheckRecipeResultRegistry.FLUID_OUTPUT_FULL;
         }
 
+        fluid = recipe.fluid.copy();
+        mEUt = -recipe.eut;
+
+        // success - check again after the batch
+        FluidStack output = recipe.fluid.copy();
+        output.amount *= batchSize;
+        mOutputFluids = new FluidStack[] { output };
+        mEfficiency = 10000 - (getIdealStatus() - getRepairStatus()) * 1000;
+        mEfficiencyIncrease = 10000;
+        mMaxProgresstime = 20 * batchSize;
+        return SimpleCheckRecipeResult.ofSuccess("drilling");
+    }
+
+    /**
+     * Get the recipe for the orbited planet and a depth. The result is cached until the dimension, the depth, the max
+     * input voltage or the recipes change, or the structure is checked again
+     *
+     * @param provider Provider of the space station dimension
+     * @param depth    Pumping depth
+     * @return Resolved recipe
+     */
+    private ResolvedRecipe resolveRecipe(IOrbitDimension provider, int depth) {
+        int dimensionId = getBaseMetaTileEntity().getWorld().provider.dimensionId;
+        long voltage = getMaxInputVoltage();
+        int recipeVersion = GasSiphonRecipes.getVersion();
+        if (resolvedRecipe != null && resolvedRecipe.dimensionId == dimensionId
+                && resolvedRecipe.depth == depth
+                && resolvedRecipe.voltage == voltage
+                && resolvedRecipe.recipeVersion == recipeVersion) {
+            return resolvedRecipe;
+        }
+        resolvedRecipe = new ResolvedRecipe(dimensionId, depth, voltage, recipeVersion);
+        String planet = provider.getPlanetToOrbit();
+
+        // there are no recipes for the planet the station is orbiting
+        if (!GasSiphonRecipes.hasRecipes(planet)) {
+            resolvedRecipe.failure = CheckRecipeResultRegistry.NO_RECIPE;
+            return resolvedRecipe;
+        }
+
+        FluidStack recipeFluid = GasSiphonRecipes.getRecipe(planet, depth);
+
+        // invalid depth
+        if (recipeFluid == null) {
+            resolvedRecipe.failure = SimpleCheckRecipeResult.ofFailure("invalid_depth");
+            return resolvedRecipe;
+        }
+
         // calculate overclockedness
         int recipeEUt = depth * (4 << (2 * provider.getCelestialBody().getTierRequirement() + 2));
-        int ocLevel = MathHelper
-                .floor_double(Math.log10((double) this.getMaxInputVoltage() / (double) recipeEUt) / LOG4);
+        int ocLevel = MathHelper.floor_double(Math.log10((double) voltage / (double) recipeEUt) / LOG4);
 
-        // apply recipe
         if (ocLevel < 0) {
             // no underclocking allowed
-            resetMachine();
-            return CheckRecipeResultRegistry.insufficientPower(recipeEUt);
+            resolvedRecipe.failure = CheckRecipeResultRegistry.insufficientPower(recipeEUt);
+            return resolvedRecipe;
         }
 
-        fluid = recipeFluid.copy();
-
+        resolvedRecipe.fluid = recipeFluid.copy();
         if (ocLevel == 0) {
-            mEUt = -recipeEUt;
+            resolvedRecipe.eut = recipeEUt;
         } else {
             ocLevel--;
-            fluid.amount *= 2 << ocLevel;
-            mEUt = -recipeEUt * (4 << (2 * ocLevel));
+            resolvedRecipe.fluid.amount *= 2 << ocLevel;
+            resolvedRecipe.eut = recipeEUt * (4 << (2 * ocLevel));
         }
+        return resolvedRecipe;
+    }
 
-        // success - check again in 20 ticks
-        mOutputFluids = new FluidStack[] { fluid };
-        mEfficiency = 10000 - (getIdealStatus() - getRepairStatus()) * 1000;
-        mEfficiencyIncrease = 10000;
-        mMaxProgresstime = 20;
-        return SimpleCheckRecipeResult.ofSuccess("drilling");
+    /**
+     * Count the mining pipes and find the depth circuit in the controller and the input bus
+     *
+     * @param bus Input bus of the siphon
+     */
+    private void countPipesAndDepth(MTEHatchInputBus bus) {
+        if (miningPipe == null) {
+            ItemStack pipe = GTModHandler.getIC2Item("miningPipe", 0);
+            miningPipe = pipe != null ? pipe.getItem() : null;
+        }
+        numPipes = 0;
+        circuitDepth = 0;
+        trackedSlots.clear();
+        trackedStacks.clear();
+        trackedSizes.clear();
+        for (int i = 0; i < mInventory.length; i++) {
+            countStack(mInventory[i], -i - 1);
+        }
+        for (int i = 0; i < bus.getBaseMetaTileEntity().getSizeInventory(); i++) {
+            countStack(bus.getBaseMetaTileEntity().getStackInSlot(i), i);
+        }
+        inventoryDirty = false;
+    }
+
+    /**
+     * Add a stack to the pipe count or take the depth from it if it is a circuit
+     *
+     * @param stack Stack in the controller or the input bus
+     * @param slot  Slot of the stack, slots of the controller are encoded as -slot - 1
+     */
+    private void countStack(ItemStack stack, int slot) {
+        if (stack == null) {
+            return;
+        }
+        if (stack.getItem() == ItemList.Circuit_Integrated.getItem()) {
+            circuitDepth = stack.getItemDamage();
+        } else if (miningPipe != null && stack.getItem() == miningPipe) {
+            numPipes += stack.stackSize;
+        } else {
+            return;
+        }
+        trackedSlots.add(slot);
+        trackedStacks.add(stack);
+        trackedSizes.add(stack.stackSize);
+    }
+
+    /**
+     * Check if the pipes and the depth have to be recounted. A siphon that can run keeps its count until an inventory
+     * reports a change or a counted stack changed. A siphon that is missing its circuit or pipes counts on every check,
+     * so new stacks are picked up right away even if the change flag of the bus was missed
+     *
+     * @param bus Input bus of the siphon
+     * @return True if the pipes and the depth have to be recounted
+     */
+    private boolean needsRecount(MTEHatchInputBus bus) {
+        return inventoryDirty || circuitDepth == 0 || numPipes < circuitDepth * 64 || hasCountedStackChanged(bus);
+    }
+
+    /**
+     * Check if one of the counted pipe or circuit stacks was removed or changed. This only looks at the slots that
+     * were counted, new stacks in other slots are noticed through the inventory change flags
+     *
+     * @param bus Input bus of the siphon
+     * @return True if a counted stack changed, else false
+     */
+    private boolean hasCountedStackChanged(MTEHatchInputBus bus) {
+        for (int i = 0; i < trackedSlots.size(); i++) {
+            int slot = trackedSlots.get(i);
+            ItemStack stack;
+            if (slot < 0) {
+                stack = -slot - 1 < mInventory.length ? mInventory[-slot - 1] : null;
+            } else {
+                stack = slot < bus.getBaseMetaTileEntity().getSizeInventory()
+                        ? bus.getBaseMetaTileEntity().getStackInSlot(slot)
+                        : null;
+            }
+            if (stack != trackedStacks.get(i) || stack.stackSize != trackedSizes.get(i)) {
+                return true;
+            }
+        }
+        return false;
     }
 
     /**
@@ -380,6 +509,8 @@ public class TileEntityPlanetaryGasSiphon extends MTEEnhancedMultiBlockBase<Tile
      */
     @Override
     public boolean checkMachine(IGregTechTileEntity aBaseMetaTileEntity, ItemStack stack) {
+        inventoryDirty = true;
+        resolvedRecipe = null;
         return checkPiece(STRUCTURE_PIECE_MAIN, 1, 6, 0) && mMaintenanceHatches.size() == 1
                 && mInputBusses.size() == 1
                 && mOutputHatches.size() == 1
@@ -435,6 +566,14 @@ public class TileEntityPlanetaryGasSiphon extends MTEEnhancedMultiBlockBase<Tile
             aNBT.setInteger("loadedChunkXPos", mCurrentChunk.chunkXPos);
             aNBT.setInteger("loadedChunkZPos", mCurrentChunk.chunkZPos);
         }
+        aNBT.setBoolean("ledgerEnabled", mLedgerEnabled);
+        // autosaves don't record the production, only the save when the server stops, chunk unloads record it earlier
+        if (ledger == null && isServerStopping()) {
+            ledger = recordLedger();
+        }
+        if (ledger != null) {
+            aNBT.setTag("ledger", ledger.writeToNBT());
+        }
     }
 
     /**
@@ -451,6 +590,130 @@ public class TileEntityPlanetaryGasSiphon extends MTEEnhancedMultiBlockBase<Tile
                     aNBT.getInteger("loadedChunkXPos"),
                     aNBT.getInteger("loadedChunkZPos"));
         }
+        mLedgerEnabled = aNBT.getBoolean("ledgerEnabled");
+        ledger = mLedgerEnabled && aNBT.hasKey("ledger") ? ProductionLedger.readFromNBT(aNBT.getCompoundTag("ledger"))
+                : null;
+    }
+
+    /**
+     * Callback that will be invoked when the chunk of the controller is unloaded, before it is saved
+     */
+    @Override
+    public void onUnload() {
+        IGregTechTileEntity baseMetaTileEntity = getBaseMetaTileEntity();
+        if (ledger == null && baseMetaTileEntity != null && baseMetaTileEntity.isServerSide()) {
+            ledger = recordLedger();
+        }
+        super.onUnload();
+    }
+
+    /**
+     * @return True if the server is shutting down, so the current save is the last one
+     */
+    private static boolean isServerStopping() {
+        MinecraftServer server = MinecraftServer.getServer();
+        return server != null && !server.isServerRunning();
+    }
+
+    /**
+     * Record the current production of the siphon, so it can be credited when the chunk is loaded again
+     *
+     * @return Recorded production, null if the ledger is disabled or the siphon isn't running
+     */
+    private ProductionLedger recordLedger() {
+        IGregTechTileEntity baseMetaTileEntity = getBaseMetaTileEntity();
+        if (!mLedgerEnabled || !mMachine
+                || mMaxProgresstime <= 0
+                || mEUt >= 0
+                || fluid.amount <= 0
+                || depth <= 0
+                || baseMetaTileEntity == null
+                || baseMetaTileEntity.getWorld() == null
+                || !baseMetaTileEntity.isAllowedToWork()) {
+            return null;
+        }
+        World world = baseMetaTileEntity.getWorld();
+        return new ProductionLedger(
+                fluid.copy(),
+                -mEUt,
+                world.getTotalWorldTime(),
+                world.provider.dimensionId,
+                depth);
+    }
+
+    /**
+     * Drop the recorded production, because the configuration of the siphon changed
+     */
+    private void invalidateLedger() {
+        ledger = null;
+    }
+
+    /**
+     * Check if the siphon would still run the recorded production: same dimension, same depth circuit, enough pipes
+     * and a recipe that pumps the same fluid for the same EU/t
+     *
+     * @param recorded Recorded production
+     * @return True if the production can be credited, else false
+     */
+    private boolean isLedgerValid(ProductionLedger recorded) {
+        IGregTechTileEntity baseMetaTileEntity = getBaseMetaTileEntity();
+        if (!mLedgerEnabled || !baseMetaTileEntity.isAllowedToWork()
+                || mEnergyHatches.isEmpty()
+                || !mEnergyHatches.get(0).isValid()
+                || mInputBusses.isEmpty()
+                || !mInputBusses.get(0).isValid()) {
+            return false;
+        }
+        World world = baseMetaTileEntity.getWorld();
+        if (world.provider.dimensionId != recorded.dimensionId
+                || !(world.provider instanceof IOrbitDimension provider)) {
+            return false;
+        }
+        MTEHatchInputBus bus = mInputBusses.get(0);
+        if (needsRecount(bus)) {
+            countPipesAndDepth(bus);
+        }
+        if (circuitDepth != recorded.depth || numPipes < recorded.depth * 64) {
+            return false;
+        }
+        ResolvedRecipe recipe = resolveRecipe(provider, recorded.depth);
+        return recipe.failure == null && recipe.eut == recorded.eut
+                && recipe.fluid.isFluidStackIdentical(recorded.fluid);
+    }
+
+    /**
+     * Credit the production of the time in which the chunk was unloaded. It is bounded by the energy that was stored
+     * in the energy hatch, since nothing charges it while the chunk is unloaded, and by the space in the output hatch.
+     * Space for the operation that was running when the chunk unloaded is kept free, so it doesn't get voided
+     */
+    private void creditLedger() {
+        ProductionLedger credited = ledger;
+        ledger = null;
+        if (!isLedgerValid(credited)) {
+            return;
+        }
+        long seconds = (getBaseMetaTileEntity().getWorld().getTotalWorldTime() - credited.worldTime) / 20;
+        IGregTechTileEntity energyHatch = mEnergyHatches.get(0).getBaseMetaTileEntity();
+        long euPerSecond = 20L * credited.eut;
+        seconds = Math.min(seconds, energyHatch.getStoredEU() / euPerSecond);
+        if (seconds <= 0) {
+            return;
+        }
+
+        int pendingSeconds = mMaxProgresstime > 0 ? mMaxProgresstime / 20 : 0;
+        int maxSeconds = Integer.MAX_VALUE / credited.fluid.amount;
+        int possibleSeconds = new VoidProtectionHelper().setMachine(this, false, true)
+                .setFluidOutputs(new FluidStack[] { credited.fluid })
+                .setMaxParallel((int) Math.min(seconds + pendingSeconds, maxSeconds)).build().getMaxParallel();
+        int creditedSeconds = possibleSeconds - pendingSeconds;
+        if (creditedSeconds <= 0) {
+            return;
+        }
+
+        energyHatch.decreaseStoredEnergyUnits(creditedSeconds * euPerSecond, false);
+        FluidStack output = credited.fluid.copy();
+        output.amount *= creditedSeconds;
+        addOutput(output);
     }
 
     /**
@@ -468,11 +731,25 @@ public class TileEntityPlanetaryGasSiphon extends MTEEnhancedMultiBlockBase<Tile
     public boolean onSolderingToolRightClick(ForgeDirection side, ForgeDirection wrenchingSide, EntityPlayer player,
             float x, float y, float z) {
         if (side == getBaseMetaTileEntity().getFrontFacing()) {
-            mChunkLoadingEnabled = !mChunkLoadingEnabled;
-            GTUtility.sendChatToPlayer(
-                    player,
-                    mChunkLoadingEnabled ? GTUtility.trans("502", "Mining chunk loading enabled")
-                            : GTUtility.trans("503", "Mining chunk loading disabled"));
+            // cycle through chunk loading, production ledger and neither of them
+            if (mChunkLoadingEnabled) {
+                mChunkLoadingEnabled = false;
+                mLedgerEnabled = true;
+                invalidateLedger();
+                if (mCurrentChunk != null) {
+                    GTChunkManager.releaseTicket((TileEntity) getBaseMetaTileEntity());
+                    mCurrentChunk = null;
+                    mWorkChunkNeedsReload = true;
+                }
+                GTUtility.sendChatToPlayer(player, StatCollector.translateToLocal("ig.siphon.ledger.enabled"));
+            } else if (mLedgerEnabled) {
+                mLedgerEnabled = false;
+                invalidateLedger();
+                GTUtility.sendChatToPlayer(player, GTUtility.trans("503", "Mining chunk loading disabled"));
+            } else {
+                mChunkLoadingEnabled = true;
+                GTUtility.sendChatToPlayer(player, GTUtility.trans("502", "Mining chunk loading enabled"));
+            }
             return true;
         }
         return super.onSolderingToolRightClick(side, wrenchingSide, player, x, y, z);
@@ -495,6 +772,20 @@ public class TileEntityPlanetaryGasSiphon extends MTEEnhancedMultiBlockBase<Tile
         super.onRemoval();
     }
 
+    /**
+     * Callback that will be invoked before executing a tick
+     *
+     * @param baseMetaTileEntity MTE of this controller
+     * @param tick               Current tick
+     */
+    @Override
+    public void onPreTick(IGregTechTileEntity baseMetaTileEntity, long tick) {
+        super.onPreTick(baseMetaTileEntity, tick);
+        if (baseMetaTileEntity.isServerSide()) {
+            latchInventoryChanges(baseMetaTileEntity, tick);
+        }
+    }
+
     /**
      * Callback that will be invoked after executing a tick
      *
@@ -503,7 +794,14 @@ public class TileEntityPlanetaryGasSiphon extends MTEEnhancedMultiBlockBase<Tile
      */
     @Override
     public void onPostTick(IGregTechTileEntity baseMetaTileEntity, long tick) {
+        if (baseMetaTileEntity.isServerSide()) {
+            latchInventoryChanges(baseMetaTileEntity, tick);
+        }
         super.onPostTick(baseMetaTileEntity, tick);
+        if (baseMetaTileEntity.isServerSide() && ledger != null && mMachine) {
+            // the structure is checked on the first ticks after the chunk was loaded, so the hatches are known now
+            creditLedger();
+        }
         if (baseMetaTileEntity.isServerSide() && mCurrentChunk != null
                 && !mWorkChunkNeedsReload
                 && !baseMetaTileEntity.isAllowedToWork()) {
@@ -513,6 +811,24 @@ public class TileEntityPlanetaryGasSiphon extends MTEEnhancedMultiBlockBase<Tile
         }
     }
 
+    /**
+     * Remember a change of the controller or the input bus until the next recipe check. The bus resets its change flag
+     * at the end of its own tick, so the flag is read before and after the tick of the controller. Only a change right
+     * before the tick of a bus that ticks first is missed, the slow resync covers it
+     *
+     * @param baseMetaTileEntity MTE of this controller
+     * @param tick               Current tick
+     */
+    private void latchInventoryChanges(IGregTechTileEntity baseMetaTileEntity, long tick) {
+        if (inventoryDirty) {
+            return;
+        }
+        inventoryDirty = baseMetaTileEntity.hasInventoryBeenModified() || tick % INVENTORY_RESYNC_INTERVAL == 0
+                || mInputBusses.isEmpty()
+                || !mInputBusses.get(0).isValid()
+                || mInputBusses.get(0).getBaseMetaTileEntity().hasInventoryBeenModified();
+    }
+
     /**
      * @return Info data stick of this controller
      */
@@ -531,6 +847,101 @@ public class TileEntityPlanetaryGasSiphon extends MTEEnhancedMultiBlockBase<Tile
         return true;
     }
 
+    @Override
+    public boolean supportsBatchMode() {
+        return true;
+    }
+
+    @Override
+    public void setVoidingMode(VoidingMode mode) {
+        if (mode != getVoidingMode()) {
+            invalidateLedger();
+        }
+        super.setVoidingMode(mode);
+    }
+
+    @Override
+    public void setBatchMode(boolean mode) {
+        if (mode != isBatchModeEnabled()) {
+            invalidateLedger();
+        }
+        super.setBatchMode(mode);
+    }
+
+    /**
+     * Recipe of the siphon for a dimension, depth and max input voltage, with the overclocks already applied
+     */
+    private static class ResolvedRecipe {
+
+        /** Dimension of the space station */
+        private final int dimensionId;
+        /** Pumping depth */
+        private final int depth;
+        /** Max input voltage of the siphon */
+        private final long voltage;
+        /** Version of the siphon recipes */
+        private final int recipeVersion;
+        /** Fluid that is pumped per second, null if there is no valid recipe */
+        private FluidStack fluid;
+        /** Used EU/t */
+        private int eut;
+        /** Result of the recipe check if there is no valid recipe, else null */
+        private CheckRecipeResult failure;
+
+        private ResolvedRecipe(int dimensionId, int depth, long voltage, int recipeVersion) {
+            this.dimensionId = dimensionId;
+            this.depth = depth;
+            this.voltage = voltage;
+            this.recipeVersion = recipeVersion;
+        }
+    }
+
+    /**
+     * Production of the siphon at the time its chunk was unloaded
+     */
+    private static class ProductionLedger {
+
+        /** Fluid that is pumped per second */
+        private final FluidStack fluid;
+        /** Used EU/t */
+        private final long eut;
+        /** World time at which the production was recorded */
+        private final long worldTime;
+        /** Dimension of the space station */
+        private final int dimensionId;
+        /** Pumping depth */
+        private final int depth;
+
+        private ProductionLedger(FluidStack fluid, long eut, long worldTime, int dimensionId, int depth) {
+            this.fluid = fluid;
+            this.eut = eut;
+            this.worldTime = worldTime;
+            this.dimensionId = dimensionId;
+            this.depth = depth;
+        }
+
+        private NBTTagCompound writeToNBT() {
+            NBTTagCompound tag = new NBTTagCompound();
+            fluid.writeToNBT(tag);
+            tag.setLong("eut", eut);
+            tag.setLong("worldTime", worldTime);
+            tag.setInteger("dimensionId", dimensionId);
+            tag.setInteger("depth", depth);
+            return tag;
+        }
+
+        private static ProductionLedger readFromNBT(NBTTagCompound tag) {
+            FluidStack fluid = FluidStack.loadFluidStackFromNBT(tag);
+            long eut = tag.getLong("eut");
+            int depth = tag.getInteger("depth");
+            // ledgers without a depth were recorded before it was validated and can't be checked
+            if (fluid == null || fluid.amount <= 0 || eut <= 0 || depth <= 0) {
+                return null;
+            }
+            return new ProductionLedger(fluid, eut, tag.getLong("worldTime"), tag.getInteger("dimensionId"), depth);
+        }
+    }
+
     private static <T> IStructureElement<T> ofReboltedCasing() {
         return new IStructureElement<T>() {
 
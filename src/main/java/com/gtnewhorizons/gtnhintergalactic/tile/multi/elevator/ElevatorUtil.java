@@ -84,6 +84,13 @@ public class ElevatorUtil {
         return AVAILABLE_MODULE_SLOTS[motorTier - 1];
     }
 
+    /**
+     * @return Module slots of the highest motor tier
+     */
+    public static int getMaxModuleSlots() {
+        return AVAILABLE_MODULE_SLOTS[AVAILABLE_MODULE_SLOTS.length - 1];
+    }
+
     /**
      * Get the maximum tier of planet to which the user can travel
      *
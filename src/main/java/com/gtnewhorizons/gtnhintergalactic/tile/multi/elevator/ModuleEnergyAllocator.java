@@ -0,0 +1,171 @@
+package com.gtnewhorizons.gtnhintergalactic.tile.multi.elevator;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToLongFunction;
+
+import com.gtnewhorizons.gtnhintergalactic.tile.multi.elevatormodules.TileEntityModuleBase;
+
+/**
+ * Distributes the energy of a Space Elevator to its modules. Each module asks for the energy it will use until the
+ * next distribution, which is the higher one of its recent draw and the EU/t of its running recipe. Modules with a
+ * higher priority are served first, modules with the same priority split the energy in proportion to their demand.
+ * Energy that is left after all demands were met tops up the buffers of the modules that aren't idle, in the same
+ * order.
+ */
+public class ModuleEnergyAllocator {
+
+    /** Number of samples over which the draw of a module is averaged */
+    private static final int DRAW_SMOOTHING = 4;
+    /** Order in which the priority groups are served */
+    private static final Comparator<ModuleState> PRIORITY_ORDER = Comparator
+            .comparingInt((ModuleState state) -> state.priority).reversed();
+
+    /** State of each module of the last distribution */
+    private final Map<TileEntityModuleBase, ModuleState> states = new IdentityHashMap<>();
+
+    /**
+     * Distribute energy to the modules. The modules are only charged through
+     * {@link TileEntityModuleBase#increaseStoredEU(long)}, the caller removes the returned amount from its buffer
+     *
+     * @param modules   Modules that can be charged
+     * @param available Energy that can be distributed
+     * @param interval  Ticks until the next distribution
+     * @return Energy that the modules took
+     */
+    public long allocate(List<TileEntityModuleBase> modules, long available, int interval) {
+        states.keySet().retainAll(modules);
+        List<ModuleState> charged = new ArrayList<>(modules.size());
+        for (TileEntityModuleBase module : modules) {
+            ModuleState state = states.computeIfAbsent(module, ModuleState::new);
+            state.update(interval);
+            charged.add(state);
+        }
+        charged.sort(PRIORITY_ORDER);
+
+        long remaining = distribute(charged, available, state -> state.demand - state.allocated);
+        distribute(charged, remaining, state -> state.idle ? 0 : state.free - state.allocated);
+
+        long used = 0;
+        for (ModuleState state : charged) {
+            long granted = state.allocated > 0 ? state.module.increaseStoredEU(state.allocated) : 0;
+            used += granted;
+            state.allocatedEUt = granted / interval;
+            state.lastStored = state.module.getEUVar();
+        }
+        return used;
+    }
+
+    /**
+     * @param module Module of the elevator
+     * @return EU/t that the module got at the last distribution
+     */
+    public long getAllocatedEUt(TileEntityModuleBase module) {
+        ModuleState state = states.get(module);
+        return state != null ? state.allocatedEUt : 0;
+    }
+
+    /**
+     * @param module Module of the elevator
+     * @return EU/t that the module asked for at the last distribution
+     */
+    public long getDemandEUt(TileEntityModuleBase module) {
+        ModuleState state = states.get(module);
+        return state != null ? state.demandEUt : 0;
+    }
+
+    /**
+     * Hand out energy to the modules in priority order. Each priority group gets what it needs, if there isn't enough
+     * left the group splits the rest in proportion to the needs of its modules
+     *
+     * @param states    States of the modules, sorted by priority
+     * @param available Energy that can be handed out
+     * @param need      Energy that a module still needs
+     * @return Energy that is left
+     */
+    private static long distribute(List<ModuleState> states, long available, ToLongFunction<ModuleState> need) {
+        int groupStart = 0;
+        while (groupStart < states.size() && available > 0) {
+            int priority = states.get(groupStart).priority;
+            int groupEnd = groupStart;
+            long groupNeed = 0;
+            while (groupEnd < states.size() && states.get(groupEnd).priority == priority) {
+                groupNeed += Math.max(0, need.applyAsLong(states.get(groupEnd)));
+                groupEnd++;
+            }
+
+            if (groupNeed <= available) {
+                for (int i = groupStart; i < groupEnd; i++) {
+                    ModuleState state = states.get(i);
+                    state.allocated += Math.max(0, need.applyAsLong(state));
+                }
+                available -= groupNeed;
+            } else {
+                // the share is a ratio, but every module gets whole EU and never more than what is left
+                double share = (double) available / groupNeed;
+                for (int i = groupStart; i < groupEnd && available > 0; i++) {
+                    ModuleState state = states.get(i);
+                    long granted = Math.min(available, (long) (Math.max(0, need.applyAsLong(state)) * share));
+                    state.allocated += granted;
+                    available -= granted;
+                }
+            }
+            groupStart = groupEnd;
+        }
+        return available;
+    }
+
+    /**
+     * Energy state of a module
+     */
+    private static class ModuleState {
+
+        /** Tracked module */
+        private final TileEntityModuleBase module;
+        /** Stored energy after the last distribution, -1 if the module wasn't charged yet */
+        private long lastStored = -1;
+        /** Average EU/t that the module used between the last distributions */
+        private long drawEUt;
+        /** Demanded EU/t of the current distribution */
+        private long demandEUt;
+        /** Demanded energy until the next distribution */
+        private long demand;
+        /** Free space in the buffer of the module */
+        private long free;
+        /** Energy priority of the module */
+        private int priority;
+        /** Flag if the module doesn't need energy right now */
+        private boolean idle;
+        /** Energy allocated in the current distribution */
+        private long allocated;
+        /** EU/t that the module got at the last distribution */
+        private long allocatedEUt;
+
+        private ModuleState(TileEntityModuleBase module) {
+            this.module = module;
+        }
+
+        /**
+         * Update the draw and the demand of the module for a new distribution
+         *
+         * @param interval Ticks until the next distribution
+         */
+        private void update(int interval) {
+            long stored = module.getEUVar();
+            if (lastStored >= 0) {
+                long sample = Math.max(0, lastStored - stored) / interval;
+                drawEUt = (drawEUt * (DRAW_SMOOTHING - 1) + sample) / DRAW_SMOOTHING;
+            }
+            lastStored = stored;
+            idle = module.isIdle();
+            priority = module.getEnergyPriority();
+            free = Math.max(0, module.maxEUStore() - stored);
+            demandEUt = idle ? 0 : Math.max(drawEUt, module.getRecipeEUt());
+            demand = Math.min(free, demandEUt > Long.MAX_VALUE / interval ? Long.MAX_VALUE : demandEUt * interval);
+            allocated = 0;
+        }
+    }
+}
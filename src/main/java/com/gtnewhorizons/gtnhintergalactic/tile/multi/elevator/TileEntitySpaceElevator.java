@@ -9,6 +9,7 @@ import static net.minecraft.util.EnumChatFormatting.RED;
 import static net.minecraft.util.EnumChatFormatting.RESET;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import net.minecraft.block.Block;
@@ -16,6 +17,7 @@ import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.entity.player.EntityPlayerMP;
 import net.minecraft.item.ItemStack;
 import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.network.PacketBuffer;
 import net.minecraft.tileentity.TileEntity;
 import net.minecraft.util.StatCollector;
 import net.minecraft.world.World;
@@ -43,6 +45,7 @@ import com.gtnewhorizons.modularui.api.drawable.UITexture;
 import com.gtnewhorizons.modularui.api.math.Color;
 import com.gtnewhorizons.modularui.api.screen.ModularWindow;
 import com.gtnewhorizons.modularui.api.screen.UIBuildContext;
+import com.gtnewhorizons.modularui.common.internal.network.NetworkUtils;
 import com.gtnewhorizons.modularui.common.widget.ButtonWidget;
 import com.gtnewhorizons.modularui.common.widget.CycleButtonWidget;
 import com.gtnewhorizons.modularui.common.widget.DrawableWidget;
@@ -96,6 +99,11 @@ public class TileEntitySpaceElevator extends GT_MetaTileEntity_EnhancedMultiBloc
     /** Flag if the extension for more modules is enabled */
     private boolean isExtensionEnabled = false;
 
+    /** Distributes the energy of the elevator to the modules */
+    private final ModuleEnergyAllocator energyAllocator = new ModuleEnergyAllocator();
+    /** Energy allocation of the modules, synced to the client while the GUI is open */
+    private List<EnergyAllocationRow> energyAllocationRows = Collections.emptyList();
+
     /** Interval in which the modules will be supplied with power in ticks */
     private static final int MODULE_CHARGE_INTERVAL = 20;
     /** Multiplier for the internal EU buffer */
@@ -112,6 +120,8 @@ public class TileEntitySpaceElevator extends GT_MetaTileEntity_EnhancedMultiBloc
 
     /** Window ID of the contributors child window */
     private static final int CONTRIBUTORS_WINDOW_ID = 10;
+    /** Window ID of the energy allocation child window */
+    private static final int ENERGY_WINDOW_ID = 11;
 
     /** Vertical offset of the main structure piece */
     private static final int STRUCTURE_PIECE_MAIN_VERT_OFFSET = 39;
@@ -604,24 +614,21 @@ public class TileEntitySpaceElevator extends GT_MetaTileEntity_EnhancedMultiBloc
                     elevatorCable.startAnimation(TileEntitySpaceElevatorCable.ClimberAnimation.DELIVER_ANIMATION);
                 }
 
-                // Charge project modules
+                // Charge project modules by their demand and priority, idle modules stay connected without energy
                 if (aTick % MODULE_CHARGE_INTERVAL == 0) {
-                    if (mProjectModuleHatches.size() > 0) {
-                        long tEnergy = getEUVar() / mProjectModuleHatches.size() * MODULE_CHARGE_INTERVAL;
-                        for (TileEntityModuleBase projectModule : mProjectModuleHatches) {
-                            if (projectModule.getNeededMotorTier() <= motorTier) {
-                                projectModule.connect();
-                                long tAvailableEnergy = getEUVar();
-                                if (tAvailableEnergy > 0) {
-                                    setEUVar(
-                                            Math.max(
-                                                    0,
-                                                    tAvailableEnergy - projectModule
-                                                            .increaseStoredEU(Math.min(tEnergy, tAvailableEnergy))));
-                                }
-                            }
+                    List<TileEntityModuleBase> chargedModules = new ArrayList<>(mProjectModuleHatches.size());
+                    for (TileEntityModuleBase projectModule : mProjectModuleHatches) {
+                        if (projectModule.getNeededMotorTier() <= motorTier) {
+                            projectModule.connect();
+                            chargedModules.add(projectModule);
                         }
                     }
+                    long availableEnergy = getEUVar();
+                    long usedEnergy = energyAllocator
+                            .allocate(chargedModules, Math.max(0, availableEnergy), MODULE_CHARGE_INTERVAL);
+                    if (usedEnergy > 0) {
+                        setEUVar(Math.max(0, availableEnergy - usedEnergy));
+                    }
                 }
             } else {
                 if (mProjectModuleHatches.size() > 0) {
@@ -883,6 +890,85 @@ public class TileEntitySpaceElevator extends GT_MetaTileEntity_EnhancedMultiBloc
             return ModularWindow.builder(120, 130).setBackground(TecTechUITextures.BACKGROUND_SCREEN_BLUE)
                     .widget(ButtonWidget.closeWindowButton(true).setPos(100, 7)).widget(texts).build();
         });
+
+        // Open energy allocation window button
+        builder.widget(new ButtonWidget().setOnClick((clickData, widget) -> {
+            if (!widget.getContext().isClient()) {
+                widget.getContext().openSyncedWindow(ENERGY_WINDOW_ID);
+            }
+        }).addTooltip(StatCollector.translateToLocal("ig.elevator.energy.title"))
+                .setBackground(TecTechUITextures.BUTTON_STANDARD_16x16, IG_UITextures.OVERLAY_BUTTON_OPTIONS)
+                .setPos(97, 155).setSize(16, 16).setTooltipShowUpDelay(TOOLTIP_DELAY));
+
+        // Energy allocation window, one row per module
+        buildContext.addSyncedWindow(ENERGY_WINDOW_ID, (player) -> {
+            DynamicPositionedColumn texts = new DynamicPositionedColumn();
+            texts.setSynced(false).setSpace(1).setPos(10, 7);
+
+            texts.widget(
+                    new TextWidget(StatCollector.translateToLocal("ig.elevator.energy.title"))
+                            .setDefaultColor(Color.PURPLE.normal));
+            texts.widget(
+                    new TextWidget(StatCollector.translateToLocal("ig.elevator.energy.none"))
+                            .setDefaultColor(Color.GRAY.bright(1))
+                            .setEnabled(widget -> energyAllocationRows.isEmpty()));
+            for (int i = 0; i < ElevatorUtil.getMaxModuleSlots(); i++) {
+                final int row = i;
+                texts.widget(
+                        TextWidget.dynamicString(() -> formatEnergyAllocationRow(row))
+                                .setDefaultColor(Color.GRAY.bright(1))
+                                .setEnabled(widget -> row < energyAllocationRows.size()));
+            }
+
+            return ModularWindow.builder(260, 30 + 10 * ElevatorUtil.getMaxModuleSlots())
+                    .setBackground(TecTechUITextures.BACKGROUND_SCREEN_BLUE)
+                    .widget(ButtonWidget.closeWindowButton(true).setPos(240, 7)).widget(texts)
+                    .widget(
+                            new FakeSyncWidget<>(
+                                    this::getEnergyAllocationRows,
+                                    val -> energyAllocationRows = val,
+                                    EnergyAllocationRow::writeRows,
+                                    EnergyAllocationRow::readRows))
+                    .build();
+        });
+    }
+
+    /**
+     * Get the energy allocation of all modules for the GUI. A new list is only sent to the client if it differs from
+     * the last one
+     *
+     * @return One row per module
+     */
+    private List<EnergyAllocationRow> getEnergyAllocationRows() {
+        List<EnergyAllocationRow> rows = new ArrayList<>(mProjectModuleHatches.size());
+        for (TileEntityModuleBase projectModule : mProjectModuleHatches) {
+            rows.add(
+                    new EnergyAllocationRow(
+                            projectModule.getLocalName(),
+                            energyAllocator.getAllocatedEUt(projectModule),
+                            energyAllocator.getDemandEUt(projectModule),
+                            projectModule.getEnergyPriority()));
+        }
+        return rows;
+    }
+
+    /**
+     * Format a row of the synced energy allocation for the GUI
+     *
+     * @param row Index of the row
+     * @return Formatted row, empty if the row doesn't exist
+     */
+    private String formatEnergyAllocationRow(int row) {
+        if (row >= energyAllocationRows.size()) {
+            return "";
+        }
+        EnergyAllocationRow allocation = energyAllocationRows.get(row);
+        return StatCollector.translateToLocalFormatted(
+                "ig.elevator.energy.module",
+                allocation.moduleName,
+                GTUtility.formatNumbers(allocation.allocatedEUt),
+                GTUtility.formatNumbers(allocation.demandEUt),
+                allocation.priority);
     }
 
     /**
@@ -909,4 +995,81 @@ public class TileEntitySpaceElevator extends GT_MetaTileEntity_EnhancedMultiBloc
     public boolean getDefaultHasMaintenanceChecks() {
         return false;
     }
+
+    /**
+     * Energy allocation of a module that is synced to clients with an open GUI
+     */
+    private static class EnergyAllocationRow {
+
+        /** Local name of the module */
+        private final String moduleName;
+        /** EU/t that the module got at the last distribution */
+        private final long allocatedEUt;
+        /** EU/t that the module asked for at the last distribution */
+        private final long demandEUt;
+        /** Energy priority of the module */
+        private final int priority;
+
+        private EnergyAllocationRow(String moduleName, long allocatedEUt, long demandEUt, int priority) {
+            this.moduleName = moduleName;
+            this.allocatedEUt = allocatedEUt;
+            this.demandEUt = demandEUt;
+            this.priority = priority;
+        }
+
+        /**
+         * Write the rows to a packet
+         *
+         * @param buffer Packet buffer
+         * @param rows   Rows that will be written
+         */
+        private static void writeRows(PacketBuffer buffer, List<EnergyAllocationRow> rows) {
+            buffer.writeVarIntToBuffer(rows.size());
+            for (EnergyAllocationRow row : rows) {
+                NetworkUtils.writeStringSafe(buffer, row.moduleName);
+                buffer.writeLong(row.allocatedEUt);
+                buffer.writeLong(row.demandEUt);
+                buffer.writeByte(row.priority);
+            }
+        }
+
+        /**
+         * Read rows from a packet
+         *
+         * @param buffer Packet buffer
+         * @return Read rows
+         */
+        private static List<EnergyAllocationRow> readRows(PacketBuffer buffer) {
+            int size = buffer.readVarIntFromBuffer();
+            List<EnergyAllocationRow> rows = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                rows.add(
+                        new EnergyAllocationRow(
+                                NetworkUtils.readStringSafe(buffer),
+                                buffer.readLong(),
+                                buffer.readLong(),
+                                buffer.readByte()));
+            }
+            return rows;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof EnergyAllocationRow)) return false;
+            EnergyAllocationRow that = (EnergyAllocationRow) o;
+            return allocatedEUt == that.allocatedEUt && demandEUt == that.demandEUt
+                    && priority == that.priority
+                    && moduleName.equals(that.moduleName);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = moduleName.hashCode();
+            result = 31 * result + Long.hashCode(allocatedEUt);
+            result = 31 * result + Long.hashCode(demandEUt);
+            result = 31 * result + priority;
+            return result;
+        }
+    }
 }
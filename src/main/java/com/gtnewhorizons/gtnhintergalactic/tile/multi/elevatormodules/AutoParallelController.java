@@ -0,0 +1,161 @@
+package com.gtnewhorizons.gtnhintergalactic.tile.multi.elevatormodules;
+
+import java.util.Arrays;
+
+/**
+ * Chooses the number of parallels of a mining module from the computation and energy that were available over the
+ * last samples. A mining operation that asks for more computation or energy than the module gets is stopped and loses
+ * its output, while fewer parallels only lower the output. So the controller picks the parallel count that would have
+ * yielded the most ore over the sampled window, counting every sample that couldn't sustain it as a lost operation.
+ */
+public class AutoParallelController {
+
+    /** Number of samples in the sliding window */
+    public static final int WINDOW_SIZE = 64;
+    /** Ticks between two samples */
+    public static final int SAMPLE_INTERVAL = 10;
+
+    /** Resource that limits the parallels of the module */
+    public enum Bottleneck {
+        /** The max parallels of the module */
+        NONE,
+        /** Available computation */
+        COMPUTATION,
+        /** Stored energy */
+        ENERGY,
+        /** Stored plasma */
+        PLASMA
+    }
+
+    /** Sampled available computation */
+    private final long[] computationSamples = new long[WINDOW_SIZE];
+    /** Sampled stored energy */
+    private final long[] energySamples = new long[WINDOW_SIZE];
+    /** Reused buffer for the parallel limits of the samples, only the first sampleCount entries are valid */
+    private final int[] sampleLimits = new int[WINDOW_SIZE];
+    /** Index of the next sample in the ring buffers */
+    private int nextSample = 0;
+    /** Number of valid samples */
+    private int sampleCount = 0;
+    /** Parallels of the last decision */
+    private int lastParallels = 0;
+    /** Bottleneck of the last decision */
+    private Bottleneck lastBottleneck = Bottleneck.NONE;
+
+    /**
+     * Add a sample of the available resources to the window
+     *
+     * @param availableComputation Computation that the module currently gets
+     * @param storedEnergy         Energy that is currently stored in the module
+     */
+    public void sample(long availableComputation, long storedEnergy) {
+        computationSamples[nextSample] = availableComputation;
+        energySamples[nextSample] = storedEnergy;
+        nextSample = (nextSample + 1) % WINDOW_SIZE;
+        sampleCount = Math.min(sampleCount + 1, WINDOW_SIZE);
+    }
+
+    /**
+     * Choose the parallels for a mining operation
+     *
+     * @param maxParallels           Max parallels of the module
+     * @param plasmaParallels        Parallels that the stored plasma allows
+     * @param computationPerParallel Computation that each parallel of the drawn asteroid needs
+     * @param energyPerParallel      Energy that each parallel of the drawn asteroid needs over the whole operation, so
+     *                               the EU/t of the recipe times its duration
+     * @param availableComputation   Computation that the module currently gets
+     * @param storedEnergy           Energy that is currently stored in the module
+     * @return Parallels for the operation, 0 if the current resources don't allow any
+     */
+    public int choose(int maxParallels, int plasmaParallels, double computationPerParallel, long energyPerParallel,
+            long availableComputation, long storedEnergy) {
+        int cap = Math.min(maxParallels, plasmaParallels);
+        int computationLimit = getLimit(availableComputation, computationPerParallel, cap);
+        int energyLimit = getLimit(storedEnergy, energyPerParallel, cap);
+        int currentLimit = Math.min(computationLimit, energyLimit);
+        if (currentLimit <= 0) {
+            lastParallels = 0;
+            lastBottleneck = computationLimit <= energyLimit ? Bottleneck.COMPUTATION : Bottleneck.ENERGY;
+            return 0;
+        }
+
+        // The highest parallel count that each sample could have sustained
+        int[] limits = sampleLimits;
+        int minComputationLimit = cap;
+        int minEnergyLimit = cap;
+        for (int i = 0; i < sampleCount; i++) {
+            int sampleComputationLimit = getLimit(computationSamples[i], computationPerParallel, cap);
+            int sampleEnergyLimit = getLimit(energySamples[i], energyPerParallel, cap);
+            minComputationLimit = Math.min(minComputationLimit, sampleComputationLimit);
+            minEnergyLimit = Math.min(minEnergyLimit, sampleEnergyLimit);
+            limits[i] = Math.min(sampleComputationLimit, sampleEnergyLimit);
+        }
+        Arrays.sort(limits, 0, sampleCount);
+
+        // Running p parallels yields p for every sample with a limit of at least p and nothing for all others, so the
+        // best choice is always one of the sampled limits. Ties go to the lower count, it fails less often
+        int best = currentLimit;
+        long bestScore = sampleCount == 0 ? 0 : (long) currentLimit * countAtLeast(limits, sampleCount, currentLimit);
+        for (int i = sampleCount - 1; i >= 0; i--) {
+            int parallels = Math.min(limits[i], currentLimit);
+            if (parallels <= 0) {
+                break;
+            }
+            long score = (long) parallels * (sampleCount - i);
+            if (score >= bestScore) {
+                best = parallels;
+                bestScore = score;
+            }
+        }
+
+        lastParallels = best;
+        if (best >= maxParallels) {
+            lastBottleneck = Bottleneck.NONE;
+        } else if (best >= plasmaParallels) {
+            lastBottleneck = Bottleneck.PLASMA;
+        } else {
+            lastBottleneck = Math.min(minComputationLimit, computationLimit)
+                    <= Math.min(minEnergyLimit, energyLimit) ? Bottleneck.COMPUTATION : Bottleneck.ENERGY;
+        }
+        return best;
+    }
+
+    /**
+     * @return Parallels that were chosen for the last operation
+     */
+    public int getLastParallels() {
+        return lastParallels;
+    }
+
+    /**
+     * @return Resource that limited the parallels of the last operation
+     */
+    public Bottleneck getLastBottleneck() {
+        return lastBottleneck;
+    }
+
+    /**
+     * Forget all samples, for example after the module was rebuilt
+     */
+    public void reset() {
+        nextSample = 0;
+        sampleCount = 0;
+        lastParallels = 0;
+        lastBottleneck = Bottleneck.NONE;
+    }
+
+    private static int getLimit(long available, double perParallel, int cap) {
+        if (perParallel <= 0) {
+            return cap;
+        }
+        return (int) Math.min(cap, available / perParallel);
+    }
+
+    private static int countAtLeast(int[] sortedLimits, int length, int value) {
+        int count = 0;
+        for (int i = length - 1; i >= 0 && sortedLimits[i] >= value; i--) {
+            count++;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,213 @@
+package com.gtnewhorizons.gtnhintergalactic.tile.multi.elevatormodules;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
+
+import com.gtnewhorizons.gtnhintergalactic.recipe.SpaceMiningPoolIndex;
+import com.gtnewhorizons.gtnhintergalactic.recipe.SpaceMiningRecipes;
+
+import gregtech.api.util.GTUtility;
+
+/**
+ * Keeps track of the drones, drill heads and rods in the input busses of a mining module. The per-tier counts are only
+ * recounted if the bus contents changed since the last check, so a module with steady inputs doesn't have to build
+ * any item maps to find its available drones.
+ */
+public class DroneAvailabilityTracker {
+
+    /** Index of the drone in the tiered inputs */
+    public static final int DRONE = 0;
+    /** Index of the drill head in the tiered inputs */
+    public static final int DRILL = 1;
+    /** Index of the rod in the tiered inputs */
+    public static final int ROD = 2;
+
+    /** For each equipment item, bitmasks of the tiers that use it as drone, drill or rod */
+    private static Map<GTUtility.ItemId, int[]> equipmentTiers;
+    /** Amount of each equipment part that a tier needs */
+    private static long[][] requiredAmounts;
+
+    /** Items, damage values and stack sizes of the inputs at the last recount */
+    private Item[] lastItems = new Item[0];
+    private int[] lastDamages = new int[0];
+    private int[] lastSizes = new int[0];
+    /** Stored amount of each equipment part for [tier][part] */
+    private final long[][] counts = new long[SpaceMiningPoolIndex.DRONE_TIER_COUNT][3];
+    /** Bitmask of tiers for which drone, drill and rod are present */
+    private int availableMask = 0;
+
+    /**
+     * Update the tracker with the current inputs of the module
+     *
+     * @param inputs Stored item inputs
+     * @return Bitmask of tiers for which drone, drill and rod are present
+     */
+    public int update(ItemStack[] inputs) {
+        if (inputs == null) {
+            inputs = new ItemStack[0];
+        }
+        if (hasChanged(inputs)) {
+            remember(inputs);
+            recount(inputs);
+        }
+        return availableMask;
+    }
+
+    /**
+     * Update the tracker with a snapshot of the inputs. If the inputs changed, the tiers are counted from the
+     * aggregated amounts of the snapshot, so every distinct item is only looked up once
+     *
+     * @param inventory Inputs at the start of the recipe check
+     * @return Bitmask of tiers for which drone, drill and rod are present
+     */
+    public int update(TileEntityModuleBase.ModuleInventorySnapshot inventory) {
+        ItemStack[] inputs = inventory.getItems();
+        if (hasChanged(inputs)) {
+            remember(inputs);
+            clearCounts();
+            for (Map.Entry<GTUtility.ItemId, Long> entry : inventory.getItemAmounts().entrySet()) {
+                // The snapshot keeps the nbt of the items, but the equipment is looked up without it
+                GTUtility.ItemId id = entry.getKey();
+                addCount(
+                        id.nbt() == null ? id : GTUtility.ItemId.createWithoutNBT(id.getItemStack()),
+                        entry.getValue());
+            }
+            updateMask();
+        }
+        return availableMask;
+    }
+
+    /**
+     * @return Bitmask of tiers for which drone, drill and rod were present at the last update
+     */
+    public int getAvailableMask() {
+        return availableMask;
+    }
+
+    /**
+     * Get the stored amount of an equipment part
+     *
+     * @param tier Drone tier
+     * @param part One of {@link #DRONE}, {@link #DRILL} or {@link #ROD}
+     * @return Stored amount at the last update
+     */
+    public long getCount(int tier, int part) {
+        return counts[tier][part];
+    }
+
+    /**
+     * Forget the last inputs, so the next update recounts everything
+     */
+    public void invalidate() {
+        lastItems = new Item[0];
+        lastDamages = new int[0];
+        lastSizes = new int[0];
+    }
+
+    private boolean hasChanged(ItemStack[] inputs) {
+        if (inputs.length != lastItems.length) {
+            return true;
+        }
+        for (int i = 0; i < inputs.length; i++) {
+            ItemStack input = inputs[i];
+            if (input == null ? lastItems[i] != null
+                    : input.getItem() != lastItems[i] || input.getItemDamage() != lastDamages[i]
+                            || input.stackSize != lastSizes[i]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void remember(ItemStack[] inputs) {
+        if (lastItems.length != inputs.length) {
+            lastItems = new Item[inputs.length];
+            lastDamages = new int[inputs.length];
+            lastSizes = new int[inputs.length];
+        }
+        for (int i = 0; i < inputs.length; i++) {
+            ItemStack input = inputs[i];
+            lastItems[i] = input == null ? null : input.getItem();
+            lastDamages[i] = input == null ? 0 : input.getItemDamage();
+            lastSizes[i] = input == null ? 0 : input.stackSize;
+        }
+    }
+
+    private void recount(ItemStack[] inputs) {
+        clearCounts();
+        for (ItemStack input : inputs) {
+            if (input == null || input.getItem() == null) {
+                continue;
+            }
+            // XXX: all space mining recipes are nbt insensitive, but if this ever changes, we would need to compare
+            // items including nbt
+            addCount(GTUtility.ItemId.createWithoutNBT(input), input.stackSize);
+        }
+        updateMask();
+    }
+
+    private void clearCounts() {
+        if (equipmentTiers == null) {
+            initEquipment();
+        }
+        for (long[] tierCounts : counts) {
+            Arrays.fill(tierCounts, 0);
+        }
+    }
+
+    private void addCount(GTUtility.ItemId id, long amount) {
+        int[] tiers = equipmentTiers.get(id);
+        if (tiers == null) {
+            return;
+        }
+        for (int part = 0; part < tiers.length; part++) {
+            for (int tier = 0; tier < counts.length; tier++) {
+                if ((tiers[part] & (1 << tier)) != 0) {
+                    counts[tier][part] += amount;
+                }
+            }
+        }
+    }
+
+    private void updateMask() {
+        int mask = 0;
+        for (int tier = 0; tier < counts.length; tier++) {
+            boolean available = true;
+            for (int part = 0; part < 3; part++) {
+                available &= requiredAmounts[tier][part] >= 0 && counts[tier][part] >= requiredAmounts[tier][part];
+            }
+            if (available) {
+                mask |= 1 << tier;
+            }
+        }
+        availableMask = mask;
+    }
+
+    private static synchronized void initEquipment() {
+        if (equipmentTiers != null) {
+            return;
+        }
+        Map<GTUtility.ItemId, int[]> tiers = new HashMap<>();
+        long[][] amounts = new long[SpaceMiningPoolIndex.DRONE_TIER_COUNT][3];
+        for (int tier = 0; tier < amounts.length; tier++) {
+            ItemStack[] tieredInputs = SpaceMiningRecipes.getTieredInputs(tier);
+            for (int part = 0; part < 3; part++) {
+                ItemStack equipment = tieredInputs[part];
+                if (equipment == null) {
+                    // Missing equipment can never be present
+                    amounts[tier][part] = -1;
+                    continue;
+                }
+                amounts[tier][part] = Math.max(equipment.stackSize, 1);
+                tiers.computeIfAbsent(GTUtility.ItemId.createWithoutNBT(equipment), k -> new int[3])[part] |= 1
+                        << tier;
+            }
+        }
+        requiredAmounts = amounts;
+        equipmentTiers = tiers;
+    }
+}
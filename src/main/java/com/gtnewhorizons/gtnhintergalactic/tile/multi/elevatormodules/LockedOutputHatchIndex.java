@@ -0,0 +1,160 @@
+package com.gtnewhorizons.gtnhintergalactic.tile.multi.elevatormodules;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import net.minecraftforge.fluids.Fluid;
+import net.minecraftforge.fluids.FluidRegistry;
+
+import gregtech.api.metatileentity.implementations.MTEHatchOutput;
+
+/**
+ * Index of the output hatches of a module by the fluid they are locked to. The index is rebuilt whenever the hatches
+ * or their locks change, so a recipe check only compares the lock names instead of resolving every hatch for every
+ * recipe. Several hatches can be locked to the same fluid, their space is claimed round-robin, so one full hatch
+ * doesn't stop the output of that fluid.
+ */
+public class LockedOutputHatchIndex {
+
+    /** Output hatches at the last rebuild */
+    private List<MTEHatchOutput> hatches = new ArrayList<>();
+    /** Locked fluid names of the hatches at the last rebuild */
+    private String[] lockedNames = new String[0];
+    /** Locked hatches by their fluid */
+    private final Map<Fluid, LockedHatches> hatchesByFluid = new IdentityHashMap<>();
+
+    /**
+     * Update the index with the current output hatches of the module. It is only rebuilt if a hatch was added, removed
+     * or got a different lock
+     *
+     * @param outputHatches Output hatches of the module
+     */
+    public void update(List<MTEHatchOutput> outputHatches) {
+        if (hasChanged(outputHatches)) {
+            rebuild(outputHatches);
+        }
+    }
+
+    /**
+     * Rebuild the index from the output hatches of the module
+     *
+     * @param outputHatches Output hatches of the module
+     */
+    public void rebuild(List<MTEHatchOutput> outputHatches) {
+        hatches = new ArrayList<>(outputHatches);
+        lockedNames = new String[hatches.size()];
+        hatchesByFluid.clear();
+        for (int i = 0; i < hatches.size(); i++) {
+            MTEHatchOutput hatch = hatches.get(i);
+            lockedNames[i] = hatch.getLockedFluidName();
+            Fluid fluid = lockedNames[i] != null ? FluidRegistry.getFluid(lockedNames[i]) : null;
+            if (fluid != null) {
+                hatchesByFluid.computeIfAbsent(fluid, k -> new LockedHatches()).hatches.add(hatch);
+            }
+        }
+    }
+
+    /**
+     * Read the free space of all locked hatches, has to be called at the start of every recipe check
+     */
+    public void startCheck() {
+        for (LockedHatches locked : hatchesByFluid.values()) {
+            if (locked.space.length != locked.hatches.size()) {
+                locked.space = new long[locked.hatches.size()];
+            }
+            for (int i = 0; i < locked.space.length; i++) {
+                MTEHatchOutput hatch = locked.hatches.get(i);
+                locked.space[i] = Math.max(0, hatch.getCapacity() - hatch.getFluidAmount());
+            }
+        }
+    }
+
+    /**
+     * Get the free space for a fluid that wasn't claimed yet in this recipe check
+     *
+     * @param fluid Output fluid
+     * @return Free space of all hatches locked to the fluid, -1 if no hatch is locked to it
+     */
+    public long getSpace(Fluid fluid) {
+        LockedHatches locked = hatchesByFluid.get(fluid);
+        if (locked == null) {
+            return -1;
+        }
+        long space = 0;
+        for (long hatchSpace : locked.space) {
+            space += hatchSpace;
+        }
+        return space;
+    }
+
+    /**
+     * @return Free space of all locked hatches that wasn't claimed yet in this recipe check
+     */
+    public long getTotalSpace() {
+        long space = 0;
+        for (LockedHatches locked : hatchesByFluid.values()) {
+            for (long hatchSpace : locked.space) {
+                space += hatchSpace;
+            }
+        }
+        return space;
+    }
+
+    /**
+     * Claim space for an output. The hatches are claimed round-robin, starting after the last hatch that the previous
+     * claim of this fluid used
+     *
+     * @param fluid  Output fluid
+     * @param amount Amount of the output
+     * @return Amount that could be claimed
+     */
+    public long claim(Fluid fluid, long amount) {
+        LockedHatches locked = hatchesByFluid.get(fluid);
+        if (locked == null || locked.space.length == 0) {
+            return 0;
+        }
+        long claimed = 0;
+        for (int i = 0; i < locked.space.length && claimed < amount; i++) {
+            int index = (locked.next + i) % locked.space.length;
+            long hatchClaim = Math.min(locked.space[index], amount - claimed);
+            if (hatchClaim > 0) {
+                locked.space[index] -= hatchClaim;
+                claimed += hatchClaim;
+                locked.next = (index + 1) % locked.space.length;
+            }
+        }
+        return claimed;
+    }
+
+    private boolean hasChanged(List<MTEHatchOutput> outputHatches) {
+        if (outputHatches.size() != hatches.size()) {
+            return true;
+        }
+        for (int i = 0; i < hatches.size(); i++) {
+            MTEHatchOutput hatch = outputHatches.get(i);
+            if (hatch != hatches.get(i)) {
+                return true;
+            }
+            String lockedName = hatch.getLockedFluidName();
+            if (lockedName == null ? lockedNames[i] != null : !lockedName.equals(lockedNames[i])) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Hatches that are locked to the same fluid
+     */
+    private static class LockedHatches {
+
+        /** Locked hatches */
+        private final List<MTEHatchOutput> hatches = new ArrayList<>();
+        /** Unclaimed space of each hatch in the current recipe check */
+        private long[] space = new long[0];
+        /** Index of the hatch that the next claim starts at */
+        private int next = 0;
+    }
+}
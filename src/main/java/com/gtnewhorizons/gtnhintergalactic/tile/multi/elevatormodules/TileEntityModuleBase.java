@@ -1,8 +1,20 @@
 package com.gtnewhorizons.gtnhintergalactic.tile.multi.elevatormodules;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
 import net.minecraft.item.ItemStack;
 import net.minecraft.util.StatCollector;
 import net.minecraftforge.common.util.ForgeDirection;
+import net.minecraftforge.fluids.Fluid;
+import net.minecraftforge.fluids.FluidStack;
+
+import org.jetbrains.annotations.NotNull;
 
 import com.gtnewhorizon.structurelib.structure.IStructureDefinition;
 import com.gtnewhorizon.structurelib.structure.StructureDefinition;
@@ -21,6 +33,7 @@ import com.gtnewhorizons.modularui.common.widget.TextWidget;
 import gregtech.api.enums.Textures;
 import gregtech.api.interfaces.ITexture;
 import gregtech.api.interfaces.tileentity.IGregTechTileEntity;
+import gregtech.api.recipe.check.CheckRecipeResult;
 import gregtech.api.util.GTStructureUtility;
 import gregtech.api.util.GTUtility;
 import gregtech.api.util.shutdown.ShutDownReasonRegistry;
@@ -51,9 +64,18 @@ public abstract class TileEntityModuleBase extends GT_MetaTileEntity_EnhancedMul
     protected final int tMinMotorTier;
     /** Flag if the module is connected to an elevator */
     protected boolean isConnected = false;
+    /** Inventory of the running recipe check, null outside of a check */
+    private ModuleInventorySnapshot inventorySnapshot;
 
     /** Output parameters */
     Parameters.Group.ParameterOut energyDisplay;
+    /** Input parameters */
+    Parameters.Group.ParameterIn energyPrioritySetting;
+
+    /** Highest energy priority of a module */
+    public static final int MAX_ENERGY_PRIORITY = 9;
+    /** Energy priority of a module that wasn't configured */
+    public static final int DEFAULT_ENERGY_PRIORITY = 1;
 
     /** Name of the stored energy display */
     private static final INameFunction<TileEntityModuleBase> ENERGY_DISPLAY_NAME = (base, p) -> GCCoreUtil
@@ -66,6 +88,12 @@ public abstract class TileEntityModuleBase extends GT_MetaTileEntity_EnhancedMul
                     (double) base.maxEUStore() / 2D,
                     (double) base.maxEUStore() * 2D,
                     (double) base.maxEUStore() * 2D);
+    /** Name of the energy priority setting */
+    private static final INameFunction<TileEntityModuleBase> ENERGY_PRIORITY_SETTING_NAME = (base, p) -> GCCoreUtil
+            .translate("gt.blockmachines.multimachine.project.ig.cfgi.0"); // Energy Priority
+    /** Status of the energy priority setting */
+    private static final IStatusFunction<TileEntityModuleBase> ENERGY_PRIORITY_STATUS = (base, p) -> LedStatus
+            .fromLimitsInclusiveOuterBoundary(p.get(), 0, 0, MAX_ENERGY_PRIORITY, MAX_ENERGY_PRIORITY);
 
     /** Name of the main structure piece */
     private static final String STRUCTURE_PIECE_MAIN = "main";
@@ -178,6 +206,89 @@ public abstract class TileEntityModuleBase extends GT_MetaTileEntity_EnhancedMul
         }
     }
 
+    /**
+     * Check if any recipe can be started. The inputs are collected once for the whole check, so the processing logic
+     * and all other lookups see the same snapshot
+     *
+     * @return Result of the recipe check
+     */
+    @Override
+    public @NotNull CheckRecipeResult checkProcessing_EM() {
+        takeInventorySnapshot();
+        try {
+            return super.checkProcessing_EM();
+        } finally {
+            releaseInventorySnapshot();
+        }
+    }
+
+    /**
+     * Collect the inputs of all hatches and busses. Until {@link #releaseInventorySnapshot()} is called,
+     * {@link #getStoredInputs()} and {@link #getStoredFluids()} return the contents of this snapshot instead of
+     * walking the hatches again
+     *
+     * @return Snapshot of the current inputs
+     */
+    protected ModuleInventorySnapshot takeInventorySnapshot() {
+        inventorySnapshot = new ModuleInventorySnapshot(super.getStoredInputs(), super.getStoredFluids());
+        return inventorySnapshot;
+    }
+
+    /**
+     * Stop using the snapshot of the last recipe check, should be called at the end of every check that took one
+     */
+    protected void releaseInventorySnapshot() {
+        inventorySnapshot = null;
+    }
+
+    /**
+     * @return Stored item inputs, taken from the snapshot during a recipe check
+     */
+    @Override
+    public ArrayList<ItemStack> getStoredInputs() {
+        return inventorySnapshot != null ? inventorySnapshot.getItemList() : super.getStoredInputs();
+    }
+
+    /**
+     * @return Stored fluid inputs, taken from the snapshot during a recipe check
+     */
+    @Override
+    public ArrayList<FluidStack> getStoredFluids() {
+        return inventorySnapshot != null ? inventorySnapshot.getFluidList() : super.getStoredFluids();
+    }
+
+    /**
+     * A module is idle if it doesn't run a recipe and can't start one, because it is disabled or its structure is
+     * incomplete. Modules that wait for inputs aren't idle, they need a charged buffer for their next recipe check
+     *
+     * @return True if the module currently doesn't need any energy from the elevator
+     */
+    public boolean isIdle() {
+        IGregTechTileEntity baseMetaTileEntity = getBaseMetaTileEntity();
+        return mMaxProgresstime == 0
+                && (!mMachine || baseMetaTileEntity == null || !baseMetaTileEntity.isAllowedToWork());
+    }
+
+    /**
+     * @return Priority with which the elevator supplies this module with energy, higher priorities are served first
+     */
+    public int getEnergyPriority() {
+        if (energyPrioritySetting == null) {
+            return DEFAULT_ENERGY_PRIORITY;
+        }
+        return Math.max(0, Math.min(MAX_ENERGY_PRIORITY, (int) energyPrioritySetting.get()));
+    }
+
+    /**
+     * @return EU/t of the running recipe, 0 if no recipe is running
+     */
+    public long getRecipeEUt() {
+        if (mMaxProgresstime <= 0) {
+            return 0;
+        }
+        return Math.abs(lEUt) * Math.max(1, eAmpereFlow);
+    }
+
     /**
      * Drain the energy input of this controller (Which is its internal buffer in this case)
      *
@@ -415,10 +526,119 @@ public abstract class TileEntityModuleBase extends GT_MetaTileEntity_EnhancedMul
     protected void parametersInstantiation_EM() {
         Parameters.Group hatch_0 = parametrization.getGroup(0, false);
         energyDisplay = hatch_0.makeOutParameter(0, 0, ENERGY_DISPLAY_NAME, ENERGY_STATUS);
+        // group 8 isn't used by any module, so the priority has the same place in all of them
+        energyPrioritySetting = parametrization.getGroup(8, false)
+                .makeInParameter(0, DEFAULT_ENERGY_PRIORITY, ENERGY_PRIORITY_SETTING_NAME, ENERGY_PRIORITY_STATUS);
     }
 
     @Override
     public boolean getDefaultHasMaintenanceChecks() {
         return false;
     }
+
+    /**
+     * Inputs of a module at the start of a recipe check. The snapshot is not immutable: its arrays hold the stored
+     * stacks themselves, so recipes still consume from the hatches and the stack sizes change with them. Only the
+     * aggregated amounts keep the values from the time the snapshot was taken
+     */
+    public static final class ModuleInventorySnapshot {
+
+        /** Stored item stacks */
+        private final ItemStack[] items;
+        /** Stored fluid stacks */
+        private final FluidStack[] fluids;
+        /** Total stored amount of each item */
+        private final Map<GTUtility.ItemId, Long> itemAmounts;
+        /** Total stored amount of each fluid */
+        private final Map<Fluid, Long> fluidAmounts;
+
+        /**
+         * Create a new snapshot of the inputs
+         *
+         * @param items  Stored item stacks
+         * @param fluids Stored fluid stacks
+         */
+        public ModuleInventorySnapshot(List<ItemStack> items, List<FluidStack> fluids) {
+            this.items = items.toArray(new ItemStack[0]);
+            this.fluids = fluids.toArray(new FluidStack[0]);
+            Map<GTUtility.ItemId, Long> itemAmounts = new HashMap<>();
+            for (ItemStack item : this.items) {
+                if (item != null && item.getItem() != null && item.stackSize > 0) {
+                    itemAmounts.merge(GTUtility.ItemId.create(item), (long) item.stackSize, Long::sum);
+                }
+            }
+            Map<Fluid, Long> fluidAmounts = new IdentityHashMap<>();
+            for (FluidStack fluid : this.fluids) {
+                if (fluid != null && fluid.getFluid() != null && fluid.amount > 0) {
+                    fluidAmounts.merge(fluid.getFluid(), (long) fluid.amount, Long::sum);
+                }
+            }
+            this.itemAmounts = Collections.unmodifiableMap(itemAmounts);
+            this.fluidAmounts = Collections.unmodifiableMap(fluidAmounts);
+        }
+
+        /**
+         * @return Stored item stacks, the array is shared and must not be modified, the stacks are the live stacks of
+         *         the hatches
+         */
+        public ItemStack[] getItems() {
+            return items;
+        }
+
+        /**
+         * @return Stored fluid stacks, the array is shared and must not be modified, the stacks are the live stacks of
+         *         the hatches
+         */
+        public FluidStack[] getFluids() {
+            return fluids;
+        }
+
+        /**
+         * @return New list of the stored item stacks
+         */
+        public ArrayList<ItemStack> getItemList() {
+            return new ArrayList<>(Arrays.asList(items));
+        }
+
+        /**
+         * @return New list of the stored fluid stacks
+         */
+        public ArrayList<FluidStack> getFluidList() {
+            return new ArrayList<>(Arrays.asList(fluids));
+        }
+
+        /**
+         * @return Total stored amount of each item, including NBT
+         */
+        public Map<GTUtility.ItemId, Long> getItemAmounts() {
+            return itemAmounts;
+        }
+
+        /**
+         * @return Total stored amount of each fluid
+         */
+        public Map<Fluid, Long> getFluidAmounts() {
+            return fluidAmounts;
+        }
+
+        /**
+         * Get the total stored amount of an item
+         *
+         * @param item Item, the stack size is ignored
+         * @return Stored amount of the item
+         */
+        public long getItemAmount(ItemStack item) {
+            return item == null ? 0 : itemAmounts.getOrDefault(GTUtility.ItemId.createNoCopy(item), 0L);
+        }
+
+        /**
+         * Get the total stored amount of a fluid
+         *
+         * @param fluid Fluid
+         * @return Stored amount of the fluid
+         */
+        public long getFluidAmount(Fluid fluid) {
+            return fluidAmounts.getOrDefault(fluid, 0L);
+        }
+    }
 }
@@ -2,20 +2,25 @@ package com.gtnewhorizons.gtnhintergalactic.tile.multi.elevatormodules;
 
 import static gregtech.api.enums.GTValues.V;
 import static gregtech.api.metatileentity.BaseTileEntity.TOOLTIP_DELAY;
+import static net.minecraft.util.EnumChatFormatting.RESET;
+import static net.minecraft.util.EnumChatFormatting.YELLOW;
 
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Random;
 import java.util.stream.Collectors;
 
 import net.minecraft.client.renderer.texture.IIconRegister;
 import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.item.ItemStack;
 import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.network.PacketBuffer;
 import net.minecraft.util.EnumChatFormatting;
 import net.minecraft.util.StatCollector;
 import net.minecraftforge.common.util.ForgeDirection;
@@ -23,12 +28,19 @@ import net.minecraftforge.fluids.FluidStack;
 
 import org.jetbrains.annotations.NotNull;
 
+import com.gtnewhorizons.gtnhintergalactic.config.IGConfig;
 import com.gtnewhorizons.gtnhintergalactic.gui.IG_UITextures;
 import com.gtnewhorizons.gtnhintergalactic.item.ItemMiningDrones;
+import com.gtnewhorizons.gtnhintergalactic.recipe.AsteroidYieldCalculator;
 import com.gtnewhorizons.gtnhintergalactic.recipe.IGRecipeMaps;
 import com.gtnewhorizons.gtnhintergalactic.recipe.IG_SpaceMiningRecipe;
-import com.gtnewhorizons.gtnhintergalactic.recipe.SpaceMiningRecipes;
+import com.gtnewhorizons.gtnhintergalactic.recipe.MiningPlasmaRegistry;
+import com.gtnewhorizons.gtnhintergalactic.recipe.MiningPlasmaRegistry.MiningPlasma;
+import com.gtnewhorizons.gtnhintergalactic.recipe.SpaceMiningOreGenerator;
+import com.gtnewhorizons.gtnhintergalactic.recipe.SpaceMiningPoolIndex;
+import com.gtnewhorizons.gtnhintergalactic.recipe.SpaceMiningRandom;
 import com.gtnewhorizons.gtnhintergalactic.recipe.SpaceMiningRecipes.WeightedAsteroidList;
+import com.gtnewhorizons.gtnhintergalactic.recipe.maps.SpaceMiningRecipeBackend;
 import com.gtnewhorizons.gtnhintergalactic.spaceprojects.ProjectAsteroidOutpost;
 import com.gtnewhorizons.gtnhintergalactic.tile.multi.elevator.TileEntitySpaceElevator;
 import com.gtnewhorizons.gtnhintergalactic.tile.multi.elevatormodules.TileEntityModuleMiner.AsteroidSummary;
@@ -39,6 +51,7 @@ import com.gtnewhorizons.modularui.api.math.Alignment;
 import com.gtnewhorizons.modularui.api.screen.ModularWindow;
 import com.gtnewhorizons.modularui.api.screen.UIBuildContext;
 import com.gtnewhorizons.modularui.api.widget.Widget;
+import com.gtnewhorizons.modularui.common.internal.network.NetworkUtils;
 import com.gtnewhorizons.modularui.common.widget.ButtonWidget;
 import com.gtnewhorizons.modularui.common.widget.DynamicPositionedColumn;
 import com.gtnewhorizons.modularui.common.widget.FakeSyncWidget;
@@ -49,7 +62,6 @@ import com.gtnewhorizons.modularui.common.widget.TextWidget;
 import cpw.mods.fml.relauncher.Side;
 import cpw.mods.fml.relauncher.SideOnly;
 import gregtech.api.enums.GTValues;
-import gregtech.api.enums.Materials;
 import gregtech.api.enums.Textures;
 import gregtech.api.interfaces.ITexture;
 import gregtech.api.interfaces.metatileentity.IMetaTileEntity;
@@ -64,6 +76,7 @@ import gregtech.api.recipe.check.SimpleCheckRecipeResult;
 import gregtech.api.util.GTUtility;
 import gregtech.api.util.MultiblockTooltipBuilder;
 import gregtech.api.util.ParallelHelper;
+import gregtech.api.util.VoidProtectionHelper;
 import gregtech.common.misc.spaceprojects.SpaceProjectManager;
 import gregtech.common.misc.spaceprojects.enums.SolarSystem;
 import gregtech.common.misc.spaceprojects.interfaces.ISpaceProject;
@@ -84,8 +97,6 @@ import tectech.thing.metaTileEntity.multi.base.render.TTRenderedExtendedFacingTe
  */
 public abstract class TileEntityModuleMiner extends TileEntityModuleBase implements IOverclockDescriptionProvider {
 
-    /** Base chance to get a bonus stack from space mining, will be multiplied with other factors */
-    protected static int BONUS_STACK_BASE_CHANCE = 5000;
     /** Max chance to get a bonus stack from space mining */
     protected static int BONUS_STACK_MAX_CHANCE = 7500;
 
@@ -93,15 +104,16 @@ public abstract class TileEntityModuleMiner extends TileEntityModuleBase impleme
     protected static final double MIN_RECIPE_TIME_MODIFIER = 0.5D;
 
     /** Max distance a mining drone can travel */
-    protected static final double MAX_DISTANCE = 300D;
+    protected static final double MAX_DISTANCE = SpaceMiningPoolIndex.MAX_DISTANCE;
 
-    // Tiered plasmas, the mining operation uses one of them. Using higher tier plasmas boosts the mining operation
-    /** Usage of helium plasma per mining operation */
-    protected static int PLASMA_HELIUM_USAGE = 1000;
-    /** Usage of bismuth plasma per mining operation */
-    protected static int PLASMA_BISMUTH_USAGE = 500;
-    /** Usage of radon plasma per mining operation */
-    protected static int PLASMA_RADON_USAGE = 300;
+    /** Max number of mining operations that are done in one batch */
+    protected static final int MAX_BATCH_SIZE = 128;
+
+    /** Number of asteroid pools a module keeps cached, enough for a full sweep in range mode */
+    protected static int POOL_CACHE_SIZE = 64;
+
+    /** Number of values that decide if the status of the GUI has to be rebuilt */
+    protected static final int STATUS_INPUT_COUNT = 12;
 
     /* Size of the whitelist in stacks **/
     protected static int WHITELIST_SIZE = 64;
@@ -112,6 +124,10 @@ public abstract class TileEntityModuleMiner extends TileEntityModuleBase impleme
     protected static String IS_WHITELISTED_NBT_TAG = "isWhitelisted";
     /** String of the NBT tag that saves the whitelist */
     protected static String WHITELIST_NBT_TAG = "whitelist";
+    /** String of the NBT tag that saves the random seed of the module */
+    protected static String MINING_SEED_NBT_TAG = "miningSeed";
+    /** String of the NBT tag that saves the number of executed mining operations */
+    protected static String MINING_OPERATION_NBT_TAG = "miningOperation";
     /** Flag if the user modified the filter */
     protected boolean wasFilterModified;
 
@@ -121,7 +137,7 @@ public abstract class TileEntityModuleMiner extends TileEntityModuleBase impleme
 
     /** Input parameters */
     Parameters.Group.ParameterIn distanceSetting, parallelSetting, overdriveSetting, modeSetting, rangeSetting,
-            stepSetting;
+            stepSetting, batchSetting, autoParallelSetting;
 
     Parameters.Group.ParameterOut distanceDisplay;
 
@@ -162,6 +178,19 @@ public abstract class TileEntityModuleMiner extends TileEntityModuleBase impleme
     private static final IStatusFunction<TileEntityModuleMiner> STEP_STATUS = (base, p) -> LedStatus
             .fromLimitsInclusiveOuterBoundary(p.get(), 0, 0, 10, 20);
 
+    /** Name of the auto parallel setting */
+    private static final INameFunction<TileEntityModuleMiner> AUTO_PARALLEL_SETTING_NAME = (base, p) -> GCCoreUtil
+            .translate("gt.blockmachines.multimachine.project.ig.miner.cfgi.8"); // Auto parallels
+    /** Status of the auto parallel setting */
+    private static final IStatusFunction<TileEntityModuleMiner> AUTO_PARALLEL_STATUS = (base, p) -> LedStatus
+            .fromLimitsInclusiveOuterBoundary(p.get(), 0, 0, 1, 1);
+    /** Name of the batch setting */
+    private static final INameFunction<TileEntityModuleMiner> BATCH_SETTING_NAME = (base, p) -> GCCoreUtil
+            .translate("gt.blockmachines.multimachine.project.ig.miner.cfgi.7"); // Batch size
+    /** Status of the batch setting */
+    private static final IStatusFunction<TileEntityModuleMiner> BATCH_STATUS = (base, p) -> LedStatus
+            .fromLimitsInclusiveOuterBoundary(p.get(), 1, 0, 32, MAX_BATCH_SIZE);
+
     // endregion
 
     /** Power object used for displaying in NEI */
@@ -180,11 +209,53 @@ public abstract class TileEntityModuleMiner extends TileEntityModuleBase impleme
     protected int prevDistance = 0;
     /** Bitmask of tiers for which a drone, drills, and rods were present when prevRecipes was computed */
     protected int prevAvailDroneMask = 0;
+    /** Plasma tier that was used when prevRecipes was computed */
+    protected int prevPlasmaTier = 0;
     /**
      * The last computed list of possible recipes. Can be reused if distance etc don't change, and used to display stats
      * to the user
      */
     protected WeightedAsteroidList prevRecipes = null;
+    /** Bitmask of the outputs that pass the ore filter for each recipe in prevRecipes */
+    protected long[] prevAllowedOutputs = null;
+    /**
+     * Least recently used cache of asteroid pools and their compiled ore filter, keyed by distance and drone mask.
+     * Module tier and voltage are fixed for a module, so they don't need to be part of the key
+     */
+    protected final Map<Long, CachedAsteroidPool> poolCache = new LinkedHashMap<Long, CachedAsteroidPool>(
+            16,
+            0.75f,
+            true) {
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, CachedAsteroidPool> eldest) {
+            return size() > POOL_CACHE_SIZE;
+        }
+    };
+    /** Seed from which the random numbers of all mining operations of this module are derived */
+    protected long miningSeed = XSTR.XSTR_INSTANCE.nextLong();
+    /** Number of mining operations this module has tried, each one gets its own random number generator */
+    protected long miningOperation = 0;
+    /** Tracker of the drones, drills and rods in the input busses */
+    protected final DroneAvailabilityTracker droneTracker = new DroneAvailabilityTracker();
+    /** Chooses the parallels if the auto parallel setting is enabled */
+    protected final AutoParallelController autoParallel = new AutoParallelController();
+    /** Status of the module that was last received from the server, only used on the client */
+    protected MinerStatus clientStatus = null;
+    /** Last status that was built for the GUI, reused until one of its inputs changes */
+    protected MinerStatus cachedStatus = null;
+    /** Asteroid pool of the cached status */
+    protected WeightedAsteroidList cachedStatusRecipes = null;
+    /** Compiled ore filter of the cached status */
+    protected long[] cachedStatusAllowedOutputs = null;
+    /** Drone mask, plasma tier, settings and computation of the cached status */
+    protected double[] cachedStatusInputs = new double[STATUS_INPUT_COUNT];
+    /** Buffer for the inputs of the current status, swapped with cachedStatusInputs when they differ */
+    protected double[] currentStatusInputs = new double[STATUS_INPUT_COUNT];
+    /** Number of pool lookups that were answered by the cache */
+    protected long poolCacheHits = 0;
+    /** Number of pool lookups that had to build the pool */
+    protected long poolCacheMisses = 0;
 
     /**
      * Create new Space Mining module
@@ -233,6 +304,11 @@ public abstract class TileEntityModuleMiner extends TileEntityModuleBase impleme
             whiteListHandler.deserializeNBT(aNBT.getCompoundTag(WHITELIST_NBT_TAG));
         }
         generateOreConfigurationList();
+        if (aNBT.hasKey(MINING_SEED_NBT_TAG)) {
+            miningSeed = aNBT.getLong(MINING_SEED_NBT_TAG);
+        }
+        // In replay mode every load starts the same sequence of operations again
+        miningOperation = IGConfig.spaceMining.replaySeed != 0 ? 0 : aNBT.getLong(MINING_OPERATION_NBT_TAG);
     }
 
     /**
@@ -247,6 +323,8 @@ public abstract class TileEntityModuleMiner extends TileEntityModuleBase impleme
         if (whiteListHandler != null) {
             aNBT.setTag(WHITELIST_NBT_TAG, whiteListHandler.serializeNBT());
         }
+        aNBT.setLong(MINING_SEED_NBT_TAG, miningSeed);
+        aNBT.setLong(MINING_OPERATION_NBT_TAG, miningOperation);
     }
 
     @Override
@@ -254,6 +332,21 @@ public abstract class TileEntityModuleMiner extends TileEntityModuleBase impleme
         return IGRecipeMaps.spaceMiningRecipes;
     }
 
+    /**
+     * Callback that will be invoked on post tick
+     *
+     * @param aBaseMetaTileEntity This
+     * @param aTick               Tick
+     */
+    @Override
+    public void onPostTick(IGregTechTileEntity aBaseMetaTileEntity, long aTick) {
+        super.onPostTick(aBaseMetaTileEntity, aTick);
+        if (aBaseMetaTileEntity.isServerSide() && aTick % AutoParallelController.SAMPLE_INTERVAL == 0
+                && isAutoParallel()) {
+            autoParallel.sample(getAvailableData_EM(), getEUVar());
+        }
+    }
+
     /**
      * Check if any recipe can be started with the given inputs
      *
@@ -262,8 +355,10 @@ public abstract class TileEntityModuleMiner extends TileEntityModuleBase impleme
     @Override
     public @NotNull CheckRecipeResult checkProcessing_EM() {
         if (!overdriveSetting.getStatus(false).isOk) return SimpleCheckRecipeResult.ofFailure("invalid_overdrive");
-        if (V[tTier] * (long) parallelSetting.get() > getEUVar()) {
-            return CheckRecipeResultRegistry.insufficientPower(V[tTier] * (long) parallelSetting.get());
+        // In auto mode the controller fits the parallels to the stored energy, so one parallel has to be affordable
+        long requiredPower = V[tTier] * (isAutoParallel() ? 1L : (long) parallelSetting.get());
+        if (requiredPower > getEUVar()) {
+            return CheckRecipeResultRegistry.insufficientPower(requiredPower);
         }
 
         lEUt = 0;
@@ -273,76 +368,161 @@ public abstract class TileEntityModuleMiner extends TileEntityModuleBase impleme
         mPollution = 0;
         mOutputItems = null;
         mOutputFluids = null;
-        List<FluidStack> inputFluids = getStoredFluids();
-        if (inputFluids.isEmpty()) {
-            return SimpleCheckRecipeResult.ofFailure("no_plasma");
-        }
+        ModuleInventorySnapshot inventory = takeInventorySnapshot();
+        try {
+            if (inventory.getFluids().length == 0) {
+                return SimpleCheckRecipeResult.ofFailure("no_plasma");
+            }
 
-        // Look for a valid plasma to start a mining operation
-        for (FluidStack fluidStack : inputFluids) {
-            int availablePlasmaTier = getTierFromPlasma(fluidStack);
-            if (availablePlasmaTier > 0) {
-                // Check if valid inputs for a mining operation are present
-                CheckRecipeResult result = process(
-                        getStoredInputs().toArray(new ItemStack[0]),
-                        inputFluids.toArray(new FluidStack[0]),
-                        availablePlasmaTier,
-                        fluidStack,
-                        getParallels(fluidStack, getPlasmaUsageFromTier(availablePlasmaTier)));
-                if (result.wasSuccessful()) {
-                    cycleDistance();
-                    return result;
+            // Look for a valid plasma to start a mining operation
+            for (FluidStack fluidStack : inventory.getFluids()) {
+                int availablePlasmaTier = getTierFromPlasma(fluidStack);
+                if (availablePlasmaTier > 0) {
+                    // Check if valid inputs for a mining operation are present
+                    CheckRecipeResult result = process(
+                            inventory,
+                            availablePlasmaTier,
+                            fluidStack,
+                            getParallels(fluidStack, getPlasmaUsageFromTier(availablePlasmaTier)));
+                    if (result.wasSuccessful()) {
+                        cycleDistance();
+                        return result;
+                    }
                 }
             }
+            cycleDistance();
+            return CheckRecipeResultRegistry.NO_RECIPE;
+        } finally {
+            releaseInventorySnapshot();
         }
-        cycleDistance();
-        return CheckRecipeResultRegistry.NO_RECIPE;
     }
 
     /**
      * Try to process the input resources
      *
-     * @param inputs      Item inputs
-     * @param fluidInputs Fluid inputs
+     * @param inputs              Item inputs
+     * @param fluidInputs         Fluid inputs
+     * @param availablePlasmaTier Tier of the used plasma
+     * @param plasma              Used plasma, its amount is reduced by the consumed plasma
+     * @param maxParallels        Max parallels that the settings and the plasma allow
      * @return Multiblock control structure that contains all process data or null if nothing can be processed
+     * @deprecated Use {@link #process(ModuleInventorySnapshot, int, FluidStack, int)}, which shares the inputs of the
+     *             recipe check
      */
+    @Deprecated
     public CheckRecipeResult process(ItemStack[] inputs, FluidStack[] fluidInputs, int availablePlasmaTier,
             FluidStack plasma, int maxParallels) {
+        if (inputs == null && fluidInputs == null) {
+            return CheckRecipeResultRegistry.NO_RECIPE;
+        }
+        return process(
+                new ModuleInventorySnapshot(
+                        inputs == null ? Collections.emptyList() : Arrays.asList(inputs),
+                        fluidInputs == null ? Collections.emptyList() : Arrays.asList(fluidInputs)),
+                availablePlasmaTier,
+                plasma,
+                maxParallels);
+    }
+
+    /**
+     * Try to process the input resources. Depending on the batch setting, several mining operations are done at once
+     * and the module runs for the combined time of all of them
+     *
+     * @param inventory           Inputs at the start of the recipe check
+     * @param availablePlasmaTier Tier of the used plasma
+     * @param plasma              Used plasma, its amount is reduced by the consumed plasma
+     * @param maxParallels        Max parallels that the settings and the plasma allow
+     * @return Multiblock control structure that contains all process data or null if nothing can be processed
+     */
+    public CheckRecipeResult process(ModuleInventorySnapshot inventory, int availablePlasmaTier, FluidStack plasma,
+            int maxParallels) {
         // Check inputs
-        if ((inputs == null && fluidInputs == null)) {
+        if (inventory == null) {
             return CheckRecipeResultRegistry.NO_RECIPE;
         }
+        ItemStack[] inputs = inventory.getItems();
+        FluidStack[] fluidInputs = inventory.getFluids();
         if (plasma == null || availablePlasmaTier <= 0) {
             return SimpleCheckRecipeResult.ofFailure("no_plasma");
         }
 
+        int batchSize = (int) Math.min(Math.max(batchSetting.get(), 1.0D), MAX_BATCH_SIZE);
+        MiningBatch batch = new MiningBatch();
+        CheckRecipeResult result = mine(
+                inputs,
+                fluidInputs,
+                getAvailDroneMask(inventory),
+                availablePlasmaTier,
+                plasma,
+                maxParallels,
+                batch,
+                false);
+        if (!result.wasSuccessful()) {
+            return result;
+        }
+        // Every further operation of the batch behaves like a separate recipe check, it stops as soon as one fails.
+        // With void protection the outputs of the whole batch have to fit into the output busses. The previous
+        // operations consumed inputs, so the drones are counted from the stacks instead of the snapshot
+        for (int operation = 1; operation < batchSize; operation++) {
+            cycleDistance();
+            maxParallels = getParallels(plasma, getPlasmaUsageFromTier(availablePlasmaTier));
+            if (!mine(
+                    inputs,
+                    fluidInputs,
+                    getAvailDroneMask(inputs),
+                    availablePlasmaTier,
+                    plasma,
+                    maxParallels,
+                    batch,
+                    !eSafeVoid).wasSuccessful()) {
+                break;
+            }
+        }
+
+        // Assign recipe parameters
+        ArrayList<ItemStack> outputItems = new ArrayList<>();
+        for (Map.Entry<GTUtility.ItemId, Long> entry : batch.outputs.entrySet()) {
+            ParallelHelper.addItemsLong(outputItems, entry.getKey().getItemStack(), entry.getValue());
+        }
+        mOutputItems = outputItems.toArray(new ItemStack[0]);
+
+        // The energy usage is averaged over the batch, so the module uses the same energy as separate operations
+        lEUt = -(long) Math.ceil((double) batch.energy / Math.max(batch.duration, 1));
+        eAmpereFlow = 1;
+        // TODO: Implement way to get computation from master controller. Or maybe keep it this way so
+        // people can route computation to their liking?
+        eRequiredData = batch.requiredData;
+        mMaxProgresstime = batch.duration;
+        mEfficiencyIncrease = 10000;
+        return CheckRecipeResultRegistry.SUCCESSFUL;
+    }
+
+    /**
+     * Do a single mining operation at the current distance and add its outputs and costs to the batch
+     *
+     * @param inputs              Item inputs
+     * @param fluidInputs         Fluid inputs
+     * @param availDroneMask      Bitmask of drone tiers for which drone, drill and rod are available
+     * @param availablePlasmaTier Tier of the used plasma
+     * @param plasma              Used plasma, its amount is reduced by the consumed plasma
+     * @param maxParallels        Max parallels that the settings and the plasma allow
+     * @param batch               Batch to which the operation is added
+     * @param protectOutputs      Flag if the operation has to be skipped if its outputs don't fit together with the
+     *                            outputs of the batch
+     * @return Result of the operation
+     */
+    protected CheckRecipeResult mine(ItemStack[] inputs, FluidStack[] fluidInputs, int availDroneMask,
+            int availablePlasmaTier, FluidStack plasma, int maxParallels, MiningBatch batch, boolean protectOutputs) {
         // Get all asteroid pools that this drone can pull from
         long tVoltage = getMaxInputVoltage();
         int distance = (int) distanceDisplay.get();
-        int availDroneMask = getAvailDroneMask(inputs);
-        WeightedAsteroidList recipes = null;
-        // Try to use the cached recipe list if the distance and available drones are the same as when it was computed
-        if (prevRecipes != null && prevDistance == distance && prevAvailDroneMask == availDroneMask) {
-            recipes = prevRecipes;
-        } else {
-            recipes = new WeightedAsteroidList(
-                    IGRecipeMaps.spaceMiningRecipes.findRecipeQuery().items(inputs).fluids(fluidInputs)
-                            .voltage(tVoltage).findAll().filter(IG_SpaceMiningRecipe.class::isInstance)
-                            .map(IG_SpaceMiningRecipe.class::cast)
-                            .filter(
-                                    recipe -> recipe.minDistance <= distance && recipe.maxDistance >= distance
-                                            && recipe.mSpecialValue <= tModuleTier)
-                            .distinct());
-            // The original implementation had each recipe added multiple times redundantly, so I implemented
-            // hashCode/equals
-            // and use .distinct() here
-            // It's possible to avoid this by arranging the recipes into a kind of interval tree, but the complexity is
-            // not worth it.
-            // Interval tree code still exists in the commit history if anyone ever wants it.
-            prevRecipes = recipes;
-            prevDistance = distance;
-            prevAvailDroneMask = availDroneMask;
-        }
+        CachedAsteroidPool pool = getAsteroidPool(inputs, fluidInputs, tVoltage, distance, availDroneMask);
+        WeightedAsteroidList recipes = pool.recipes;
+        prevRecipes = pool.recipes;
+        prevAllowedOutputs = pool.allowedOutputs;
+        prevDistance = distance;
+        prevAvailDroneMask = availDroneMask;
+        prevPlasmaTier = availablePlasmaTier;
 
         // Return if no recipe was found
         if (recipes.totalWeight == 0) {
@@ -357,103 +537,168 @@ public abstract class TileEntityModuleMiner extends TileEntityModuleBase impleme
             plasmaModifier -= asteroidOutpost.getPlasmaDiscount();
         }
 
-        IG_SpaceMiningRecipe tRecipe = recipes.getRandom();
+        Random random = nextOperationRandom();
+        int recipeIndex = recipes.getRandomIndex(random);
 
         // Make sure recipe really exists and we have enough power
-        if (tRecipe == null) {
+        if (recipeIndex < 0) {
             return CheckRecipeResultRegistry.NO_RECIPE;
         }
+        IG_SpaceMiningRecipe tRecipe = recipes.recipes.get(recipeIndex);
         if (tRecipe.mEUt > tVoltage) {
             return CheckRecipeResultRegistry.insufficientPower(tRecipe.mEUt);
         }
 
-        // Limit parallels by available computation, return if not enough computation is available
-        maxParallels = (int) Math.min(maxParallels, getAvailableData_EM() / (tRecipe.computation * compModifier));
+        // Limit parallels by available computation, return if not enough computation is available. In auto mode the
+        // controller also takes the computation and energy of the last samples into account, the stored energy has to
+        // cover each parallel for the whole operation
+        int duration = getRecipeTime(tRecipe.mDuration, availablePlasmaTier);
+        if (isAutoParallel()) {
+            maxParallels = autoParallel.choose(
+                    getMaxParallels(),
+                    maxParallels,
+                    tRecipe.computation * compModifier,
+                    (long) tRecipe.mEUt * duration,
+                    getAvailableData_EM(),
+                    getEUVar());
+        } else {
+            maxParallels = (int) Math.min(maxParallels, getAvailableData_EM() / (tRecipe.computation * compModifier));
+        }
         if (maxParallels <= 0) {
             return CheckRecipeResultRegistry.NO_RECIPE;
         }
 
-        // Check how many parallels we can actually do, return if none
+        // Check how many parallels we can actually do, return if none. If the outputs are protected, the inputs are
+        // only consumed after we know that the outputs fit
         ParallelHelper helper = new ParallelHelper().setMaxParallel(maxParallels).setRecipe(tRecipe)
                 .setFluidInputs(fluidInputs).setItemInputs(inputs).setAvailableEUt(GTValues.V[tTier])
-                .setMachine(this, false, false).setConsumption(true).build();
+                .setMachine(this, false, false).setConsumption(!protectOutputs).build();
         int parallels = helper.getCurrentParallel();
         if (parallels <= 0) {
             return CheckRecipeResultRegistry.NO_RECIPE;
         }
 
-        // Randomly generate ore stacks with the given chances, ores and size
-        Map<GTUtility.ItemId, Long> outputs = new HashMap<>();
-        int totalChance = Arrays.stream(tRecipe.mChances).sum();
-        try {
-            for (int i = 0; i < tRecipe.maxSize * parallels; i++) {
-                int bonusStackChance = 0;
-                if (i >= tRecipe.minSize * parallels) {
-                    bonusStackChance = getBonusStackChance(availablePlasmaTier);
+        // Randomly generate ore stacks with the given chances, ores and size. If the filter removes every ore of this
+        // asteroid, there is nothing to generate. Protected outputs are collected apart until we know that they fit,
+        // all others go straight into the batch
+        Map<GTUtility.ItemId, Long> outputs = protectOutputs ? batch.pendingOutputs : batch.outputs;
+        batch.pendingOutputs.clear();
+        long allowedOutputs = prevAllowedOutputs[recipeIndex];
+        if (allowedOutputs != 0) {
+            long[] generatedStacks = SpaceMiningOreGenerator.generateStacks(
+                    tRecipe,
+                    parallels,
+                    getBonusStackChance(availablePlasmaTier),
+                    random,
+                    allowedOutputs);
+            for (int i = 0; i < generatedStacks.length; i++) {
+                ItemStack generatedOre = tRecipe.mOutputs[i];
+                if (generatedStacks[i] > 0 && generatedOre != null) {
+                    outputs.merge(
+                            GTUtility.ItemId.createNoCopy(generatedOre),
+                            generatedStacks[i] * generatedOre.stackSize,
+                            Long::sum);
                 }
-                if (i < tRecipe.minSize * parallels || bonusStackChance > XSTR.XSTR_INSTANCE.nextInt(10000)) {
-                    int random = XSTR.XSTR_INSTANCE.nextInt(totalChance);
-                    int currentChance = 0;
-                    for (int j = 0; j < tRecipe.mChances.length; j++) {
-                        currentChance += tRecipe.mChances[j];
-                        if (random <= currentChance) {
-                            ItemStack generatedOre = tRecipe.mOutputs[j];
-                            if (configuredOres == null || configuredOres.isEmpty()
-                                    || isWhitelisted == configuredOres.contains(getOreString(generatedOre))) {
-                                outputs.merge(
-                                        GTUtility.ItemId.createNoCopy(generatedOre),
-                                        (long) generatedOre.stackSize,
-                                        Long::sum);
-                            }
-                            break;
-                        }
-                    }
+            }
+        }
+
+        if (protectOutputs) {
+            ArrayList<ItemStack> outputItems = new ArrayList<>();
+            for (Map.Entry<GTUtility.ItemId, Long> entry : batch.outputs.entrySet()) {
+                long amount = entry.getValue() + outputs.getOrDefault(entry.getKey(), 0L);
+                ParallelHelper.addItemsLong(outputItems, entry.getKey().getItemStack(), amount);
+            }
+            for (Map.Entry<GTUtility.ItemId, Long> entry : outputs.entrySet()) {
+                if (!batch.outputs.containsKey(entry.getKey())) {
+                    ParallelHelper.addItemsLong(outputItems, entry.getKey().getItemStack(), entry.getValue());
                 }
             }
-        } catch (Exception ignored) {
-            return CheckRecipeResultRegistry.NO_RECIPE;
+            VoidProtectionHelper voidProtection = new VoidProtectionHelper().setMachine(this, true, false)
+                    .setItemOutputs(outputItems.toArray(new ItemStack[0])).setMaxParallel(1).build();
+            if (voidProtection.getMaxParallel() < 1) {
+                return CheckRecipeResultRegistry.ITEM_OUTPUT_FULL;
+            }
+            new ParallelHelper().setMaxParallel(parallels).setRecipe(tRecipe).setFluidInputs(fluidInputs)
+                    .setItemInputs(inputs).setAvailableEUt(GTValues.V[tTier]).setMachine(this, false, false)
+                    .setConsumption(true).build();
+            for (Map.Entry<GTUtility.ItemId, Long> entry : outputs.entrySet()) {
+                batch.outputs.merge(entry.getKey(), entry.getValue(), Long::sum);
+            }
         }
 
         plasma.amount = (int) Math.max(
                 0,
                 Math.ceil(plasma.amount - parallels * getPlasmaUsageFromTier(availablePlasmaTier) * plasmaModifier));
 
-        // Assign recipe parameters
-        ArrayList<ItemStack> outputItems = new ArrayList<>();
-        for (Map.Entry<GTUtility.ItemId, Long> entry : outputs.entrySet()) {
-            ParallelHelper.addItemsLong(outputItems, entry.getKey().getItemStack(), entry.getValue());
+        batch.energy += (long) tRecipe.mEUt * parallels * duration;
+        batch.duration += duration;
+        batch.requiredData = Math
+                .max(batch.requiredData, (int) Math.ceil(tRecipe.computation * parallels * compModifier));
+        return CheckRecipeResultRegistry.SUCCESSFUL;
+    }
+
+    /**
+     * Get the random number generator for the next mining operation. It only depends on the seed of the module and the
+     * number of previous operations, so a sequence of operations can be reproduced
+     *
+     * @return Random number generator for the operation
+     */
+    protected Random nextOperationRandom() {
+        long seed = miningSeed;
+        int replaySeed = IGConfig.spaceMining.replaySeed;
+        if (replaySeed != 0) {
+            IGregTechTileEntity base = getBaseMetaTileEntity();
+            long position = base == null ? 0
+                    : ((long) base.getXCoord() << 40) ^ ((long) base.getYCoord() << 32) ^ base.getZCoord();
+            seed = SpaceMiningRandom.mix64(replaySeed ^ SpaceMiningRandom.mix64(position));
         }
-        mOutputItems = outputItems.toArray(new ItemStack[0]);
+        return SpaceMiningRandom.forOperation(seed, miningOperation++);
+    }
 
-        lEUt = (long) -tRecipe.mEUt * parallels;
-        eAmpereFlow = 1;
-        // TODO: Implement way to get computation from master controller. Or maybe keep it this way so
-        // people can route computation to their liking?
-        eRequiredData = (int) Math.ceil(tRecipe.computation * parallels * compModifier);
-        mMaxProgresstime = getRecipeTime(tRecipe.mDuration, availablePlasmaTier);
-        mEfficiencyIncrease = 10000;
-        return CheckRecipeResultRegistry.SUCCESSFUL;
+    /**
+     * Get the asteroid pool for a mining operation, either from the cache or by looking it up
+     *
+     * @param inputs         Item inputs
+     * @param fluidInputs    Fluid inputs
+     * @param voltage        Voltage of the module
+     * @param distance       Distance of the mining operation
+     * @param availDroneMask Bitmask of available drone tiers
+     * @return Pool with the compiled ore filter
+     */
+    protected CachedAsteroidPool getAsteroidPool(ItemStack[] inputs, FluidStack[] fluidInputs, long voltage,
+            int distance, int availDroneMask) {
+        long key = ((long) distance << 32) | (availDroneMask & 0xFFFFFFFFL);
+        CachedAsteroidPool pool = poolCache.get(key);
+        if (pool != null) {
+            poolCacheHits++;
+            return pool;
+        }
+        poolCacheMisses++;
+        WeightedAsteroidList recipes;
+        if (SpaceMiningPoolIndex.isComplete()) {
+            recipes = SpaceMiningPoolIndex.getPool(distance, tModuleTier, voltage, availDroneMask);
+        } else {
+            // Some recipes need more than a drone, drill and rod, so the pool index can't be used. The backend still
+            // narrows the recipes down by distance, only their inputs have to be checked
+            recipes = new WeightedAsteroidList(
+                    IGRecipeMaps.spaceMiningRecipes.getBackend()
+                            .findRecipes(SpaceMiningRecipeBackend.ALL_DRONES, distance, tModuleTier)
+                            .filter(recipe -> recipe.mEUt <= voltage
+                                    && recipe.isRecipeInputEqual(false, fluidInputs, inputs)));
+        }
+        pool = new CachedAsteroidPool(recipes, compileOreFilter(recipes));
+        poolCache.put(key, pool);
+        return pool;
     }
 
     /** Determine what drones exist and have the required drills/rods for at least one recipe in a list of inputs */
     protected int getAvailDroneMask(ItemStack[] inputs) {
-        Map<GTUtility.ItemId, Long> itemCounts = new HashMap<>();
-        for (ItemStack input : inputs) {
-            // XXX: all space mining recipes are nbt insensitive, but if this ever changes, we would need to compare
-            // items including nbt
-            GTUtility.ItemId key = GTUtility.ItemId.createWithoutNBT(input);
-            itemCounts.merge(key, (long) input.stackSize, Long::sum);
-        }
-        int res = 0;
-        for (int tier = ItemMiningDrones.DroneTiers.LV.ordinal(); tier
-                <= ItemMiningDrones.DroneTiers.UXV.ordinal(); ++tier) {
-            if (Arrays.stream(SpaceMiningRecipes.getTieredInputs(tier)).allMatch(
-                    input -> itemCounts.getOrDefault(GTUtility.ItemId.createWithoutNBT(input), 0l)
-                            >= Math.max(input.stackSize, 1))) {
-                res |= 1 << tier;
-            }
-        }
-        return res;
+        return droneTracker.update(inputs);
+    }
+
+    /** Determine what drones exist and have the required drills/rods from the aggregated amounts of a snapshot */
+    protected int getAvailDroneMask(ModuleInventorySnapshot inventory) {
+        return droneTracker.update(inventory);
     }
 
     /**
@@ -463,19 +708,8 @@ public abstract class TileEntityModuleMiner extends TileEntityModuleBase impleme
      * @return Tier of the input plasma if valid, else 0
      */
     protected int getTierFromPlasma(FluidStack fluidStack) {
-        if (fluidStack == null) {
-            return 0;
-        }
-        if (fluidStack.isFluidEqual(Materials.Radon.getPlasma(1)) && fluidStack.amount >= PLASMA_RADON_USAGE) {
-            return 3;
-        } else
-            if (fluidStack.isFluidEqual(Materials.Bismuth.getPlasma(1)) && fluidStack.amount >= PLASMA_BISMUTH_USAGE) {
-                return 2;
-            } else if (fluidStack.isFluidEqual(Materials.Helium.getPlasma(1))
-                    && fluidStack.amount >= PLASMA_HELIUM_USAGE) {
-                        return 1;
-                    }
-        return 0;
+        MiningPlasma plasma = MiningPlasmaRegistry.getPlasma(fluidStack);
+        return plasma != null && fluidStack.amount >= plasma.usage ? plasma.tier : 0;
     }
 
     /**
@@ -485,12 +719,8 @@ public abstract class TileEntityModuleMiner extends TileEntityModuleBase impleme
      * @return Usage of the input plasma tier
      */
     protected int getPlasmaUsageFromTier(int plasmaTier) {
-        return switch (plasmaTier) {
-            case 1 -> PLASMA_HELIUM_USAGE;
-            case 2 -> PLASMA_BISMUTH_USAGE;
-            case 3 -> PLASMA_RADON_USAGE;
-            default -> 0;
-        };
+        MiningPlasma plasma = MiningPlasmaRegistry.getPlasma(plasmaTier);
+        return plasma != null ? plasma.usage : 0;
     }
 
     /**
@@ -500,13 +730,13 @@ public abstract class TileEntityModuleMiner extends TileEntityModuleBase impleme
      * @return Chance for the bonus stack
      */
     protected int getBonusStackChance(int plasmaTier) {
-        if (plasmaTier <= 0 || plasmaTier > 3) {
+        MiningPlasma plasma = MiningPlasmaRegistry.getPlasma(plasmaTier);
+        if (plasma == null) {
             return 0;
         }
-        // Base chance is 50% + 10% for every plasma tier above T1. The whole chance is multiplied by 2 - overdrive
-        // setting
+        // The chance of the plasma is multiplied by 2 - overdrive setting
         return Math.min(
-                (int) ((double) (BONUS_STACK_BASE_CHANCE + 1000 * (plasmaTier - 1)) * (2.0D - overdriveSetting.get())),
+                (int) ((double) plasma.bonusStackChance * (2.0D - overdriveSetting.get())),
                 BONUS_STACK_MAX_CHANCE);
     }
 
@@ -524,6 +754,36 @@ public abstract class TileEntityModuleMiner extends TileEntityModuleBase impleme
                 configuredOres.add(getOreString(item));
             }
         }
+        // The compiled filters of all cached pools are outdated now
+        poolCache.clear();
+        if (prevRecipes != null) {
+            prevAllowedOutputs = compileOreFilter(prevRecipes);
+        }
+    }
+
+    /**
+     * Compile the configured ore filter into a bitmask of allowed outputs for each recipe of an asteroid pool, so no
+     * ore strings have to be built while generating ores
+     *
+     * @param recipes Asteroid pool for which the filter is compiled
+     * @return Bitmask of the allowed output indices for each recipe of the pool
+     */
+    protected long[] compileOreFilter(WeightedAsteroidList recipes) {
+        long[] allowedOutputs = new long[recipes.recipes.size()];
+        if (configuredOres == null || configuredOres.isEmpty()) {
+            Arrays.fill(allowedOutputs, SpaceMiningOreGenerator.ALL_OUTPUTS);
+            return allowedOutputs;
+        }
+        for (int i = 0; i < allowedOutputs.length; i++) {
+            // Outputs that don't fit into the mask are always generated
+            ItemStack[] ores = recipes.recipes.get(i).mOutputs;
+            for (int j = 0; j < Math.min(ores.length, Long.SIZE); j++) {
+                if (isWhitelisted == configuredOres.contains(getOreString(ores[j]))) {
+                    allowedOutputs[i] |= 1L << j;
+                }
+            }
+        }
+        return allowedOutputs;
     }
 
     /**
@@ -563,9 +823,24 @@ public abstract class TileEntityModuleMiner extends TileEntityModuleBase impleme
             return 0;
         }
         float plasmaModifier = asteroidOutpost != null ? 1f - asteroidOutpost.getPlasmaDiscount() : 1f;
-        return Math.min(
-                (int) Math.min(getMaxParallels(), parallelSetting.get()),
-                (int) (plasma.amount / (plasmaUsage * plasmaModifier)));
+        return Math.min(getParallelSettingLimit(), (int) (plasma.amount / (plasmaUsage * plasmaModifier)));
+    }
+
+    /**
+     * Get the max parallels that the settings allow. In auto mode this is the max parallels of the module, the
+     * controller lowers them for each operation
+     *
+     * @return Max parallels of the settings
+     */
+    protected int getParallelSettingLimit() {
+        return isAutoParallel() ? getMaxParallels() : (int) Math.min(getMaxParallels(), parallelSetting.get());
+    }
+
+    /**
+     * @return True if the parallels are chosen by the auto parallel controller
+     */
+    protected boolean isAutoParallel() {
+        return (int) autoParallelSetting.get() != 0;
     }
 
     /**
@@ -575,10 +850,11 @@ public abstract class TileEntityModuleMiner extends TileEntityModuleBase impleme
      * @return Boosted recipe time
      */
     protected int getRecipeTime(int unboostedTime, int plasmaTier) {
-        // Reduce recipe time by 10% for every plasma tier above T1 and divide recipe time by the overdrive value
-        return plasmaTier > 0
+        MiningPlasma plasma = MiningPlasmaRegistry.getPlasma(plasmaTier);
+        // Apply the time modifier of the plasma and divide recipe time by the overdrive value
+        return plasma != null
                 ? (int) ((double) unboostedTime
-                        * Math.max((1D - 0.1D * (plasmaTier - 1)) / overdriveSetting.get(), MIN_RECIPE_TIME_MODIFIER))
+                        * Math.max(plasma.timeModifier / overdriveSetting.get(), MIN_RECIPE_TIME_MODIFIER))
                 : unboostedTime;
     }
 
@@ -620,6 +896,186 @@ public abstract class TileEntityModuleMiner extends TileEntityModuleBase impleme
         }
     }
 
+    /**
+     * Asteroid pool together with the ore filter compiled for it
+     */
+    protected static class CachedAsteroidPool {
+
+        public final WeightedAsteroidList recipes;
+        public final long[] allowedOutputs;
+
+        public CachedAsteroidPool(WeightedAsteroidList recipes, long[] allowedOutputs) {
+            this.recipes = recipes;
+            this.allowedOutputs = allowedOutputs;
+        }
+    }
+
+    /**
+     * Combined outputs and costs of the mining operations of one batch
+     */
+    protected static class MiningBatch {
+
+        /** Generated ores of all operations */
+        public final Map<GTUtility.ItemId, Long> outputs = new HashMap<>();
+        /** Generated ores of the current operation while it is checked whether they fit into the output busses */
+        public final Map<GTUtility.ItemId, Long> pendingOutputs = new HashMap<>();
+        /** Used energy of all operations */
+        public long energy = 0;
+        /** Combined duration of all operations in ticks */
+        public int duration = 0;
+        /** Highest computation that any operation needs */
+        public int requiredData = 0;
+    }
+
+    /**
+     * Numeric status of the module that is synced to clients with an open GUI
+     */
+    protected static class MinerStatus {
+
+        /** Status of a module that hasn't looked for asteroids yet */
+        public static final MinerStatus NONE = new MinerStatus(
+                false,
+                0,
+                new String[0],
+                new float[0],
+                new float[0],
+                new int[0],
+                0f,
+                -1,
+                0);
+
+        public final boolean hasAsteroidPool;
+        public final int droneMask;
+        public final String[] asteroidNames;
+        public final float[] chances;
+        public final float[] timeDensities;
+        public final int[] maxParallels;
+        public final float expectedYield;
+        /** Parallels chosen by the auto parallel controller, -1 if it is disabled */
+        public final int autoParallels;
+        /** Ordinal of the {@link AutoParallelController.Bottleneck} of the last auto parallel decision */
+        public final int bottleneck;
+
+        public MinerStatus(int droneMask, List<AsteroidSummary> summaries, float expectedYield, int autoParallels,
+                int bottleneck) {
+            this(
+                    true,
+                    droneMask,
+                    new String[summaries.size()],
+                    new float[summaries.size()],
+                    new float[summaries.size()],
+                    new int[summaries.size()],
+                    expectedYield,
+                    autoParallels,
+                    bottleneck);
+            for (int i = 0; i < summaries.size(); i++) {
+                AsteroidSummary summary = summaries.get(i);
+                asteroidNames[i] = summary.recipe.getAsteroidName();
+                chances[i] = summary.chance;
+                timeDensities[i] = summary.timeDensity;
+                maxParallels[i] = summary.maxParallels;
+            }
+        }
+
+        private MinerStatus(boolean hasAsteroidPool, int droneMask, String[] asteroidNames, float[] chances,
+                float[] timeDensities, int[] maxParallels, float expectedYield, int autoParallels, int bottleneck) {
+            this.hasAsteroidPool = hasAsteroidPool;
+            this.droneMask = droneMask;
+            this.asteroidNames = asteroidNames;
+            this.chances = chances;
+            this.timeDensities = timeDensities;
+            this.maxParallels = maxParallels;
+            this.expectedYield = expectedYield;
+            this.autoParallels = autoParallels;
+            this.bottleneck = bottleneck;
+        }
+
+        /**
+         * Write the status to a packet
+         *
+         * @param buffer Packet buffer
+         * @param status Status that will be written
+         */
+        public static void write(PacketBuffer buffer, MinerStatus status) {
+            buffer.writeBoolean(status.hasAsteroidPool);
+            buffer.writeInt(status.droneMask);
+            buffer.writeFloat(status.expectedYield);
+            buffer.writeInt(status.autoParallels);
+            buffer.writeByte(status.bottleneck);
+            buffer.writeVarIntToBuffer(status.asteroidNames.length);
+            for (int i = 0; i < status.asteroidNames.length; i++) {
+                NetworkUtils.writeStringSafe(buffer, status.asteroidNames[i]);
+                buffer.writeFloat(status.chances[i]);
+                buffer.writeFloat(status.timeDensities[i]);
+                buffer.writeVarIntToBuffer(status.maxParallels[i]);
+            }
+        }
+
+        /**
+         * Read a status from a packet
+         *
+         * @param buffer Packet buffer
+         * @return Read status
+         */
+        public static MinerStatus read(PacketBuffer buffer) {
+            boolean hasAsteroidPool = buffer.readBoolean();
+            int droneMask = buffer.readInt();
+            float expectedYield = buffer.readFloat();
+            int autoParallels = buffer.readInt();
+            int bottleneck = buffer.readByte();
+            int size = buffer.readVarIntFromBuffer();
+            String[] asteroidNames = new String[size];
+            float[] chances = new float[size];
+            float[] timeDensities = new float[size];
+            int[] maxParallels = new int[size];
+            for (int i = 0; i < size; i++) {
+                asteroidNames[i] = NetworkUtils.readStringSafe(buffer);
+                chances[i] = buffer.readFloat();
+                timeDensities[i] = buffer.readFloat();
+                maxParallels[i] = buffer.readVarIntFromBuffer();
+            }
+            return new MinerStatus(
+                    hasAsteroidPool,
+                    droneMask,
+                    asteroidNames,
+                    chances,
+                    timeDensities,
+                    maxParallels,
+                    expectedYield,
+                    autoParallels,
+                    bottleneck);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof MinerStatus)) return false;
+            MinerStatus that = (MinerStatus) o;
+            return hasAsteroidPool == that.hasAsteroidPool && droneMask == that.droneMask
+                    && Float.compare(expectedYield, that.expectedYield) == 0
+                    && autoParallels == that.autoParallels
+                    && bottleneck == that.bottleneck
+                    && Arrays.equals(asteroidNames, that.asteroidNames)
+                    && Arrays.equals(chances, that.chances)
+                    && Arrays.equals(timeDensities, that.timeDensities)
+                    && Arrays.equals(maxParallels, that.maxParallels);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = Boolean.hashCode(hasAsteroidPool);
+            result = 31 * result + droneMask;
+            result = 31 * result + Float.hashCode(expectedYield);
+            result = 31 * result + autoParallels;
+            result = 31 * result + bottleneck;
+            result = 31 * result + Arrays.hashCode(asteroidNames);
+            result = 31 * result + Arrays.hashCode(chances);
+            result = 31 * result + Arrays.hashCode(timeDensities);
+            result = 31 * result + Arrays.hashCode(maxParallels);
+            return result;
+        }
+    }
+
     /**
      * Get a list of summaries for some set of recipes. For each recipe, find: - chance: the probability of choosing it
      * at each operation - timeDensity: the fraction of time that the recipe takes up in the long run - maxParallels:
@@ -647,6 +1103,50 @@ public abstract class TileEntityModuleMiner extends TileEntityModuleBase impleme
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Calculate the expected output of this module at its current settings, assuming that power, computation, plasma,
+     * drills and rods don't run out
+     *
+     * @param plasmaTier Tier of the used plasma
+     * @param droneMask  Bitmask of drone tiers for which drone, drill and rod are available
+     * @return Expected output per second
+     */
+    public AsteroidYieldCalculator.Yield calculateExpectedYield(int plasmaTier, int droneMask) {
+        if (plasmaTier <= 0) {
+            return AsteroidYieldCalculator.Yield.NONE;
+        }
+        float compModifier = asteroidOutpost == null ? 1f : 1f - asteroidOutpost.getComputationDiscount();
+        boolean isCycling = (int) modeSetting.get() != 0;
+        return new AsteroidYieldCalculator(tModuleTier, tTier, getMaxInputVoltage()).setDroneMask(droneMask)
+                .setDistance(
+                        (int) distanceSetting.get(),
+                        isCycling ? (int) rangeSetting.get() : 0,
+                        isCycling ? (int) stepSetting.get() : 0)
+                .setParallels(getParallelSettingLimit(), getAvailableData_EM() / compModifier)
+                .setPlasmaBonus(getBonusStackChance(plasmaTier), time -> getRecipeTime(time, plasmaTier))
+                .setOreFilter(this::compileOreFilter).calculate();
+    }
+
+    /**
+     * Get the info data of this module, used by the scanner
+     *
+     * @return Lines of info data
+     */
+    @Override
+    public String[] getInfoData() {
+        List<String> info = new ArrayList<>(Arrays.asList(super.getInfoData()));
+        info.add(
+                "Asteroid pool cache: " + YELLOW
+                        + GTUtility.formatNumbers(poolCacheHits)
+                        + RESET
+                        + " hits, "
+                        + YELLOW
+                        + GTUtility.formatNumbers(poolCacheMisses)
+                        + RESET
+                        + " misses");
+        return info.toArray(new String[0]);
+    }
+
     /**
      * Instantiate parameters of the controller
      */
@@ -660,9 +1160,11 @@ public abstract class TileEntityModuleMiner extends TileEntityModuleBase impleme
         distanceSetting = hatch_0.makeInParameter(0, 1, DISTANCE_SETTING_NAME, DISTANCE_STATUS);
         parallelSetting = hatch_0.makeInParameter(1, getMaxParallels(), PARALLEL_SETTING_NAME, PARALLEL_STATUS);
         overdriveSetting = hatch_1.makeInParameter(0, 1, OVERDRIVE_SETTING_NAME, OVERDRIVE_STATUS);
+        autoParallelSetting = hatch_1.makeInParameter(1, 0, AUTO_PARALLEL_SETTING_NAME, AUTO_PARALLEL_STATUS);
         modeSetting = hatch_2.makeInParameter(0, 0, MODE_SETTING_NAME, MODE_STATUS);
         rangeSetting = hatch_2.makeInParameter(1, 0, RANGE_SETTING_NAME, RANGE_STATUS);
         stepSetting = hatch_3.makeInParameter(0, 0, STEP_SETTING_NAME, STEP_STATUS);
+        batchSetting = hatch_3.makeInParameter(1, 1, BATCH_SETTING_NAME, BATCH_STATUS);
         distanceDisplay = hatch_0.makeOutParameter(1, 1, DISTANCE_SETTING_NAME, DISTANCE_STATUS);
     }
 
@@ -771,6 +1273,7 @@ public abstract class TileEntityModuleMiner extends TileEntityModuleBase impleme
     protected void drawTexts(DynamicPositionedColumn screenElements, SlotWidget inventorySlot) {
         super.drawTexts(screenElements, inventorySlot);
 
+        // The server only syncs the numbers of the status, the client localizes and formats them
         screenElements.widget(TextWidget.dynamicString(() -> {
             StringBuilder res = new StringBuilder();
             res.append(StatCollector.translateToLocal("gt.blockmachines.multimachine.project.ig.miner.cfgi.4"));
@@ -780,14 +1283,15 @@ public abstract class TileEntityModuleMiner extends TileEntityModuleBase impleme
                             (int) modeSetting.get() == 0 ? "gt.blockmachines.multimachine.project.ig.miner.cfgi.4.1"
                                     : "gt.blockmachines.multimachine.project.ig.miner.cfgi.4.2"));
             res.append('\n');
-            if (prevRecipes != null) {
+            MinerStatus status = clientStatus;
+            if (status != null && status.hasAsteroidPool) {
                 res.append(
                         StatCollector
                                 .translateToLocal("gt.blockmachines.multimachine.project.ig.miner.activedronetiers"));
                 res.append(": ");
                 boolean found = false;
                 for (ItemMiningDrones.DroneTiers tier : ItemMiningDrones.DroneTiers.values()) {
-                    if (((1 << tier.ordinal()) & prevAvailDroneMask) != 0) {
+                    if (((1 << tier.ordinal()) & status.droneMask) != 0) {
                         if (found) {
                             res.append(", ");
                         }
@@ -803,36 +1307,109 @@ public abstract class TileEntityModuleMiner extends TileEntityModuleBase impleme
                         StatCollector.translateToLocal(
                                 "gt.blockmachines.multimachine.project.ig.miner.asteroidsummaries.0"));
                 res.append(":\n");
-                float effectiveComp = getAvailableData_EM()
-                        / (asteroidOutpost == null ? 1f : 1f - asteroidOutpost.getComputationDiscount());
-                for (AsteroidSummary summ : getAsteroidSummaries(
-                        Math.min(getMaxParallels(), (int) parallelSetting.get()),
-                        effectiveComp)) {
-                    res.append(StatCollector.translateToLocal("ig.asteroid." + summ.recipe.getAsteroidName()));
+                String chanceText = StatCollector
+                        .translateToLocal("gt.blockmachines.multimachine.project.ig.miner.asteroidchance");
+                String timeDensityText = StatCollector
+                        .translateToLocal("gt.blockmachines.multimachine.project.ig.miner.asteroidtimedensity");
+                String maxParallelsText = StatCollector
+                        .translateToLocal("gt.blockmachines.multimachine.project.ig.miner.asteroidmaxparallels");
+                for (int i = 0; i < status.asteroidNames.length; i++) {
+                    res.append(StatCollector.translateToLocal("ig.asteroid." + status.asteroidNames[i]));
                     res.append(
                             String.format(
                                     ": %.3f%% / %s, %.3f%% / %s, %s %dx",
-                                    summ.chance * 100f,
-                                    StatCollector.translateToLocal(
-                                            "gt.blockmachines.multimachine.project.ig.miner.asteroidchance"),
-                                    summ.timeDensity * 100f,
-                                    StatCollector.translateToLocal(
-                                            "gt.blockmachines.multimachine.project.ig.miner.asteroidtimedensity"),
-                                    StatCollector.translateToLocal(
-                                            "gt.blockmachines.multimachine.project.ig.miner.asteroidmaxparallels"),
-                                    summ.maxParallels));
+                                    status.chances[i] * 100f,
+                                    chanceText,
+                                    status.timeDensities[i] * 100f,
+                                    timeDensityText,
+                                    maxParallelsText,
+                                    status.maxParallels[i]));
                     res.append('\n');
                 }
+                res.append(
+                        String.format(
+                                "%s: %.2f/s",
+                                StatCollector.translateToLocal(
+                                        "gt.blockmachines.multimachine.project.ig.miner.expectedyield"),
+                                status.expectedYield));
+                res.append('\n');
+                if (status.autoParallels >= 0) {
+                    res.append(
+                            StatCollector
+                                    .translateToLocal("gt.blockmachines.multimachine.project.ig.miner.autoparallels"));
+                    res.append(": ");
+                    res.append(status.autoParallels);
+                    res.append(" (");
+                    res.append(
+                            StatCollector.translateToLocal(
+                                    "gt.blockmachines.multimachine.project.ig.miner.bottleneck." + status.bottleneck));
+                    res.append(")\n");
+                }
             }
             return res.toString();
-        }).setSynced(true).setTextAlignment(Alignment.TopLeft).setScale(0.5f).setDefaultColor(COLOR_TEXT_WHITE.get())
-                .setEnabled(widget -> mMachine)).widget(
+        }).setTextAlignment(Alignment.TopLeft).setScale(0.5f).setDefaultColor(COLOR_TEXT_WHITE.get())
+                .setEnabled(widget -> mMachine))
+                .widget(
                         new FakeSyncWidget.IntegerSyncer(
                                 () -> (int) modeSetting.get(),
-                                val -> parametrization.trySetParameters(
-                                        modeSetting.id % 10,
-                                        modeSetting.id / 10,
-                                        modeSetting.get())));
+                                val -> parametrization
+                                        .trySetParameters(modeSetting.id % 10, modeSetting.id / 10, val)))
+                .widget(
+                        new FakeSyncWidget<>(
+                                this::getMinerStatus,
+                                val -> clientStatus = val,
+                                MinerStatus::write,
+                                MinerStatus::read));
+    }
+
+    /**
+     * Collect the current status of the module that is displayed in the GUI. The status is only rebuilt if the asteroid
+     * pool, the ore filter, the drone mask, the plasma tier, the settings or the computation changed. A new status is
+     * only sent to the client if it differs from the last one
+     *
+     * @return Current status
+     */
+    protected MinerStatus getMinerStatus() {
+        if (prevRecipes == null) {
+            return MinerStatus.NONE;
+        }
+        float effectiveComp = getAvailableData_EM()
+                / (asteroidOutpost == null ? 1f : 1f - asteroidOutpost.getComputationDiscount());
+        int parallelLimit = getParallelSettingLimit();
+        int autoParallels = isAutoParallel() ? autoParallel.getLastParallels() : -1;
+        int bottleneck = autoParallel.getLastBottleneck().ordinal();
+
+        double[] inputs = currentStatusInputs;
+        inputs[0] = prevAvailDroneMask;
+        inputs[1] = prevPlasmaTier;
+        inputs[2] = parallelLimit;
+        inputs[3] = effectiveComp;
+        inputs[4] = distanceSetting.get();
+        inputs[5] = rangeSetting.get();
+        inputs[6] = stepSetting.get();
+        inputs[7] = modeSetting.get();
+        inputs[8] = overdriveSetting.get();
+        inputs[9] = autoParallels;
+        inputs[10] = bottleneck;
+        inputs[11] = getMaxInputVoltage();
+        if (cachedStatus != null && cachedStatusRecipes == prevRecipes
+                && cachedStatusAllowedOutputs == prevAllowedOutputs
+                && Arrays.equals(inputs, cachedStatusInputs)) {
+            return cachedStatus;
+        }
+
+        cachedStatus = new MinerStatus(
+                prevAvailDroneMask,
+                getAsteroidSummaries(parallelLimit, effectiveComp),
+                (float) calculateExpectedYield(prevPlasmaTier, prevAvailDroneMask).totalItemsPerSecond,
+                autoParallels,
+                bottleneck);
+        cachedStatusRecipes = prevRecipes;
+        cachedStatusAllowedOutputs = prevAllowedOutputs;
+        // the buffers are swapped, so the inputs of the new status are kept without copying them
+        currentStatusInputs = cachedStatusInputs;
+        cachedStatusInputs = inputs;
+        return cachedStatus;
     }
 
     /** Texture that will be displayed on the side of the module */
@@ -881,6 +1458,7 @@ public abstract class TileEntityModuleMiner extends TileEntityModuleBase impleme
             wasFilterModified = false;
             generateOreConfigurationList();
         }
+        droneTracker.invalidate();
         if (SpaceProjectManager.teamHasProject(getBaseMetaTileEntity().getOwnerUuid(), ASTEROID_OUTPOST)) {
             ISpaceProject proj = SpaceProjectManager
                     .getTeamProject(getBaseMetaTileEntity().getOwnerUuid(), SolarSystem.KuiperBelt, "AsteroidOutpost");
@@ -9,7 +9,6 @@ import net.minecraft.util.StatCollector;
 import net.minecraftforge.common.util.ForgeDirection;
 import net.minecraftforge.fluids.FluidStack;
 
-import org.apache.commons.lang3.tuple.Pair;
 import org.jetbrains.annotations.NotNull;
 
 import com.gtnewhorizons.gtnhintergalactic.recipe.SpacePumpingRecipes;
@@ -19,6 +18,9 @@ import com.gtnewhorizons.modularui.common.widget.FakeSyncWidget;
 import com.gtnewhorizons.modularui.common.widget.SlotWidget;
 import com.gtnewhorizons.modularui.common.widget.TextWidget;
 
+import appeng.api.storage.data.IAEFluidStack;
+import appeng.me.GridAccessException;
+import appeng.util.item.AEFluidStack;
 import cpw.mods.fml.relauncher.Side;
 import cpw.mods.fml.relauncher.SideOnly;
 import gregtech.api.enums.GTValues;
@@ -29,8 +31,11 @@ import gregtech.api.interfaces.tileentity.IGregTechTileEntity;
 import gregtech.api.metatileentity.implementations.MTEHatchOutput;
 import gregtech.api.recipe.check.CheckRecipeResult;
 import gregtech.api.recipe.check.CheckRecipeResultRegistry;
+import gregtech.api.recipe.check.SimpleCheckRecipeResult;
 import gregtech.api.util.MultiblockTooltipBuilder;
 import gregtech.api.util.ParallelHelper;
+import gregtech.api.util.shutdown.ShutDownReason;
+import gregtech.api.util.shutdown.ShutDownReasonRegistry;
 import gregtech.common.tileentities.machines.MTEHatchOutputME;
 import micdoodle8.mods.galacticraft.core.util.GCCoreUtil;
 import tectech.thing.metaTileEntity.multi.base.INameFunction;
@@ -56,6 +61,7 @@ public abstract class TileEntityModulePump extends TileEntityModuleBase {
     Parameters.Group.ParameterIn[] gasTypeSettings;
     Parameters.Group.ParameterIn[] planetTypeSettings;
     Parameters.Group.ParameterIn batchSetting;
+    Parameters.Group.ParameterIn targetStockSetting;
 
     /** Name of the planet type setting */
     private static final INameFunction<TileEntityModulePump> PLANET_TYPE_SETTING_NAME = (base,
@@ -83,10 +89,36 @@ public abstract class TileEntityModulePump extends TileEntityModuleBase {
             .translate("gt.blockmachines.multimachine.project.ig.pump.cfgi.3"); // Batch size
     /** Status of the batch setting */
     private static final IStatusFunction<TileEntityModulePump> BATCH_STATUS = (base, p) -> LedStatus
-            .fromLimitsInclusiveOuterBoundary(p.get(), 1, 0, 32, 128);
+            .fromLimitsInclusiveOuterBoundary(p.get(), 1, 0, 32, base.getMaxBatchSize());
+    /** Name of the target stock setting */
+    private static final INameFunction<TileEntityModulePump> TARGET_STOCK_SETTING_NAME = (base, p) -> GCCoreUtil
+            .translate("gt.blockmachines.multimachine.project.ig.pump.cfgi.4"); // Target ME stock
+    /** Status of the target stock setting */
+    private static final IStatusFunction<TileEntityModulePump> TARGET_STOCK_STATUS = (base, p) -> LedStatus
+            .fromLimitsInclusiveOuterBoundary(p.get(), 0, 0, Double.MAX_VALUE, Double.MAX_VALUE);
+
+    /** Max batch size without an ME output hatch */
+    protected static final int MAX_BATCH_SIZE = 128;
+    /** Ticks of a single pumping operation */
+    protected static final int OPERATION_TICKS = 20;
+
+    /** Ticks that the pump sleeps after the first check without any output space or demand */
+    protected static final int MIN_SLEEP_TICKS = 20;
+    /** Maximum ticks that the pump sleeps before it checks again */
+    protected static final int MAX_SLEEP_TICKS = 1200;
 
     /** Flag if this machine has an ME output hatch, will be updated in the structure check */
     protected boolean hasMeOutputHatch = false;
+    /** Output hatches by the fluid they are locked to, will be rebuilt in the structure check */
+    protected final LockedOutputHatchIndex lockedOutputs = new LockedOutputHatchIndex();
+    /** Ticks of the current sleep, 0 if the pump isn't sleeping */
+    protected int sleepTicks = 0;
+    /** Timer value at which the current sleep ends */
+    protected long sleepUntil = 0;
+    /** Free space of the locked output hatches when the pump fell asleep */
+    protected long sleepOutputSpace = 0;
+    /** Settings of the pump when it fell asleep, the pump wakes up if they change */
+    protected int sleepSettings = 0;
 
     /**
      * Create new Space Pump module
@@ -122,58 +154,204 @@ public abstract class TileEntityModulePump extends TileEntityModuleBase {
      */
     @Override
     public @NotNull CheckRecipeResult checkProcessing_EM() {
+        boolean limitByLockedOutputs = !hasMeOutputHatch && !eSafeVoid;
+        if (limitByLockedOutputs) {
+            lockedOutputs.update(mOutputHatches);
+            lockedOutputs.startCheck();
+        }
+        if (isSleeping(limitByLockedOutputs)) {
+            return SimpleCheckRecipeResult.ofFailure("pump_sleeping");
+        }
+
         if (ENERGY_CONSUMPTION * getParallelRecipes() * getParallels() > getEUVar()) {
             return CheckRecipeResultRegistry
                     .insufficientPower(ENERGY_CONSUMPTION * getParallelRecipes() * getParallels());
         }
 
         ArrayList<FluidStack> outputs = new ArrayList<>();
-        int usedEUt = 0;
+        long usedEUt = 0;
         // We store the highest batch size as time multiplier
-        int maxBatchSize = (int) Math.min(Math.max(batchSetting.get(), 1.0D), 128.0D);
+        int maxBatchSize = getBatchSize();
+        long targetStock = hasMeOutputHatch ? (long) Math.max(targetStockSetting.get(), 0.0D) : 0;
+        boolean hasRecipe = false;
         for (int i = 0; i < getParallelRecipes(); i++) {
-            FluidStack fluid = SpacePumpingRecipes.RECIPES
-                    .get(Pair.of((int) planetTypeSettings[i].get(), (int) gasTypeSettings[i].get()));
+            FluidStack fluid = SpacePumpingRecipes
+                    .getRecipe((int) planetTypeSettings[i].get(), (int) gasTypeSettings[i].get());
             if (fluid != null) {
-                int batchSize = (int) Math.min(Math.max(batchSetting.get(), 1.0D), 128.0D);
-                MTEHatchOutput targetOutput = null;
-                if (!hasMeOutputHatch && !eSafeVoid) {
-                    for (MTEHatchOutput output : mOutputHatches) {
-                        if (output.mFluid != null && output.mFluid.getFluid() != null
-                                && output.getLockedFluidName() != null
-                                && output.getLockedFluidName().equals(fluid.getFluid().getName())
-                                && output.mFluid.getFluid().equals(fluid.getFluid())) {
-                            targetOutput = output;
-                            break;
-                        }
+                int batchSize = getBatchSize();
+                int parallels = Math.min((int) parallelSettings[i].get(), getParallels());
+                if (parallels <= 0) {
+                    continue;
+                }
+                hasRecipe = true;
+                // Only outputs with a locked hatch are limited, all others go wherever they fit. With a target stock,
+                // the pump only fills the ME network up to that stock
+                long outputSpace = limitByLockedOutputs ? lockedOutputs.getSpace(fluid.getFluid()) : -1;
+                if (targetStock > 0) {
+                    long stock = getMeStock(fluid);
+                    if (stock >= 0) {
+                        outputSpace = Math.max(0, targetStock - stock);
                     }
                 }
-                int parallels = Math.min((int) parallelSettings[i].get(), getParallels());
-                if (targetOutput != null) {
-                    int outputSpace = targetOutput.getCapacity() - targetOutput.getFluidAmount();
+                if (outputSpace >= 0) {
                     if (outputSpace < fluid.amount) {
                         continue;
                     }
-                    parallels = Math.min(parallels, outputSpace / fluid.amount);
-                    batchSize = Math.min(batchSize, outputSpace / (fluid.amount * parallels));
+                    parallels = (int) Math.min(parallels, outputSpace / fluid.amount);
+                    batchSize = (int) Math.min(batchSize, outputSpace / ((long) fluid.amount * parallels));
                     maxBatchSize = Math.max(maxBatchSize, batchSize);
                 }
                 if (parallels > 0 && batchSize > 0) {
                     fluid = fluid.copy();
                     long fluidLong = (long) fluid.amount * parallels * batchSize;
-                    usedEUt += (int) (ENERGY_CONSUMPTION * parallels);
+                    if (limitByLockedOutputs && outputSpace >= 0) {
+                        lockedOutputs.claim(fluid.getFluid(), fluidLong);
+                    }
+                    usedEUt += ENERGY_CONSUMPTION * parallels;
                     ParallelHelper.addFluidsLong(outputs, fluid, fluidLong);
                 }
             }
         }
 
+        if (outputs.isEmpty()) {
+            // Every configured recipe is blocked by full outputs or a reached target stock, so there is no point in
+            // checking again until something changed
+            if (hasRecipe) {
+                fallAsleep(limitByLockedOutputs);
+            }
+            return CheckRecipeResultRegistry.NO_RECIPE;
+        }
+        sleepTicks = 0;
+
         lEUt = -usedEUt;
         mOutputFluids = outputs.toArray(new FluidStack[0]);
         eAmpereFlow = 1;
         mEfficiencyIncrease = 10000;
-        mMaxProgresstime = 20 * maxBatchSize;
+        mMaxProgresstime = OPERATION_TICKS * maxBatchSize;
+
+        return CheckRecipeResultRegistry.SUCCESSFUL;
+    }
+
+    /**
+     * Get the max batch size. An ME output hatch takes any amount of fluid, so the batch size is only limited by the
+     * max progress time
+     *
+     * @return Max batch size of the module
+     */
+    protected int getMaxBatchSize() {
+        return hasMeOutputHatch ? Integer.MAX_VALUE / OPERATION_TICKS : MAX_BATCH_SIZE;
+    }
+
+    /**
+     * @return Batch size of the settings, limited to the max batch size
+     */
+    protected int getBatchSize() {
+        return (int) Math.min(Math.max(batchSetting.get(), 1.0D), getMaxBatchSize());
+    }
+
+    /**
+     * Stop the machine. If a batch is interrupted because the elevator ran out of energy, the operations that were
+     * already finished still produce their output, so long batches don't lose all progress. Other shutdowns, like a
+     * player disabling the pump or a broken structure, keep the usual behavior and drop the batch
+     *
+     * @param reason Reason for the shutdown
+     */
+    @Override
+    public void stopMachine(@NotNull ShutDownReason reason) {
+        if (ShutDownReasonRegistry.POWER_LOSS.getID().equals(reason.getID()) && mMaxProgresstime > OPERATION_TICKS
+                && mProgresstime > 0
+                && mOutputFluids != null) {
+            long finishedTicks = (long) (mProgresstime / OPERATION_TICKS) * OPERATION_TICKS;
+            if (finishedTicks > 0) {
+                for (FluidStack output : mOutputFluids) {
+                    if (output != null) {
+                        FluidStack partial = output.copy();
+                        partial.amount = (int) (output.amount * finishedTicks / mMaxProgresstime);
+                        if (partial.amount > 0) {
+                            addOutput(partial);
+                        }
+                    }
+                }
+            }
+            mOutputFluids = null;
+        }
+        super.stopMachine(reason);
+    }
+
+    /**
+     * Check if the pump is sleeping. A sleeping pump wakes up early if a locked output hatch was drained or the
+     * settings changed
+     *
+     * @param limitByLockedOutputs Flag if the outputs are limited by the locked output hatches
+     * @return True if the pump still sleeps, else false
+     */
+    protected boolean isSleeping(boolean limitByLockedOutputs) {
+        if (sleepTicks <= 0) {
+            return false;
+        }
+        if (getBaseMetaTileEntity().getTimer() >= sleepUntil || sleepSettings != getSettingsHash()
+                || (limitByLockedOutputs && lockedOutputs.getTotalSpace() > sleepOutputSpace)) {
+            // Keep the sleep duration, so the backoff continues if nothing can be produced yet
+            sleepUntil = 0;
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Let the pump sleep. Every check in a row that can't produce anything doubles the sleep duration
+     *
+     * @param limitByLockedOutputs Flag if the outputs are limited by the locked output hatches
+     */
+    protected void fallAsleep(boolean limitByLockedOutputs) {
+        sleepTicks = sleepTicks <= 0 ? MIN_SLEEP_TICKS : Math.min(sleepTicks * 2, MAX_SLEEP_TICKS);
+        sleepUntil = getBaseMetaTileEntity().getTimer() + sleepTicks;
+        sleepOutputSpace = limitByLockedOutputs ? lockedOutputs.getTotalSpace() : 0;
+        sleepSettings = getSettingsHash();
+    }
 
-        return !outputs.isEmpty() ? CheckRecipeResultRegistry.SUCCESSFUL : CheckRecipeResultRegistry.NO_RECIPE;
+    /**
+     * @return True if the pump sleeps or can't work and doesn't need any energy
+     */
+    @Override
+    public boolean isIdle() {
+        return super.isIdle() || sleepTicks > 0 && sleepUntil > getBaseMetaTileEntity().getTimer();
+    }
+
+    /**
+     * @return Hash of all settings that decide what the pump produces
+     */
+    protected int getSettingsHash() {
+        int hash = Double.hashCode(batchSetting.get());
+        hash = 31 * hash + Double.hashCode(targetStockSetting.get());
+        hash = 31 * hash + (eSafeVoid ? 1 : 0);
+        for (int i = 0; i < getParallelRecipes(); i++) {
+            hash = 31 * hash + Double.hashCode(planetTypeSettings[i].get());
+            hash = 31 * hash + Double.hashCode(gasTypeSettings[i].get());
+            hash = 31 * hash + Double.hashCode(parallelSettings[i].get());
+        }
+        return hash;
+    }
+
+    /**
+     * Get the amount of a fluid that is stored in the ME network of the ME output hatch
+     *
+     * @param fluid Fluid to look up
+     * @return Stored amount or -1 if the module has no connected ME output hatch
+     */
+    protected long getMeStock(FluidStack fluid) {
+        for (MTEHatchOutput output : mOutputHatches) {
+            if (output instanceof MTEHatchOutputME meOutput) {
+                try {
+                    IAEFluidStack stored = meOutput.getProxy().getStorage().getFluidInventory().getStorageList()
+                            .findPrecise(AEFluidStack.create(fluid));
+                    return stored != null ? stored.getStackSize() : 0;
+                } catch (GridAccessException e) {
+                    return -1;
+                }
+            }
+        }
+        return -1;
     }
 
     /**
@@ -194,7 +372,9 @@ public abstract class TileEntityModulePump extends TileEntityModuleBase {
                     break;
                 }
             }
+            lockedOutputs.rebuild(mOutputHatches);
         }
+        sleepTicks = 0;
         return state;
     }
 
@@ -231,6 +411,8 @@ public abstract class TileEntityModulePump extends TileEntityModuleBase {
                     .makeInParameter(0, getParallels(), PARALLEL_SETTING_NAME, PARALLEL_STATUS);
         }
         batchSetting = parametrization.getGroup(9, false).makeInParameter(1, 1, BATCH_SETTING_NAME, BATCH_STATUS);
+        targetStockSetting = parametrization.getGroup(9, false)
+                .makeInParameter(0, 0, TARGET_STOCK_SETTING_NAME, TARGET_STOCK_STATUS);
     }
 
     /**
@@ -321,8 +503,8 @@ public abstract class TileEntityModulePump extends TileEntityModuleBase {
         if (index < 0 || index >= getParallelRecipes()) {
             return null;
         }
-        FluidStack fluid = SpacePumpingRecipes.RECIPES
-                .get(Pair.of((int) planetTypeSettings[index].get(), (int) gasTypeSettings[index].get()));
+        FluidStack fluid = SpacePumpingRecipes
+                .getRecipe((int) planetTypeSettings[index].get(), (int) gasTypeSettings[index].get());
         if (fluid == null) {
             return null;
         }
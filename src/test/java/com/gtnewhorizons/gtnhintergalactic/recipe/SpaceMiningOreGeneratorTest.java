@@ -0,0 +1,257 @@
+package com.gtnewhorizons.gtnhintergalactic.recipe;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks that {@link SpaceMiningOreGenerator} generates the same distribution of stacks as rolling every stack on its
+ * own, which is how the miner generated its ores before.
+ */
+class SpaceMiningOreGeneratorTest {
+
+    /** Number of operations that are compared */
+    private static final int OPERATIONS = 20_000;
+    /** Number of draws of the binomial tests */
+    private static final int DRAWS = 1_000_000;
+    /** Standard normal quantile of the significance level of the tests, p = 0.001 */
+    private static final double Z_CRITICAL = 3.090;
+    /** Minimum number of samples in a cell of a chi-square test */
+    private static final int MIN_CELL_COUNT = 20;
+
+    private static final Item DRONE = new Item();
+    private static final Item ORE = new Item();
+
+    @Test
+    void stacksMatchPerStackRolls() {
+        // large enough that both the bonus stacks and the split across the outputs use BTPE
+        assertMatchesPerStackRolls(createRecipe(10, 30, 5000, 3000, 1500, 500), 8, 6000, 51);
+    }
+
+    @Test
+    void stacksMatchPerStackRollsWithSmallCounts() {
+        // small enough that every draw uses inversion
+        assertMatchesPerStackRolls(createRecipe(1, 4, 7000, 2000, 1000), 2, 2500, 52);
+    }
+
+    @Test
+    void stacksMatchPerStackRollsWithUnevenChances() {
+        assertMatchesPerStackRolls(createRecipe(5, 40, 100, 9000, 0, 400, 500), 16, 9000, 53);
+    }
+
+    @Test
+    void binomialMatchesPmfWithInversion() {
+        assertBinomialMatchesPmf(50, 0.2D, 61);
+        assertBinomialMatchesPmf(40, 0.9D, 62);
+    }
+
+    @Test
+    void binomialMatchesPmfWithBtpe() {
+        assertBinomialMatchesPmf(400, 0.25D, 63);
+        assertBinomialMatchesPmf(2000, 0.3D, 64);
+        assertBinomialMatchesPmf(20000, 0.1D, 65);
+        assertBinomialMatchesPmf(3000, 0.8D, 66);
+    }
+
+    @Test
+    void binomialHandlesEdgeCases() {
+        Random random = new Random(67);
+        assertEquals(0, SpaceMiningOreGenerator.nextBinomial(random, 0, 0.5D));
+        assertEquals(0, SpaceMiningOreGenerator.nextBinomial(random, 100, 0D));
+        assertEquals(100, SpaceMiningOreGenerator.nextBinomial(random, 100, 1D));
+    }
+
+    @Test
+    void filteredOutputsKeepTheirShare() {
+        IG_SpaceMiningRecipe recipe = createRecipe(10, 30, 5000, 3000, 1500, 500);
+        // only the second and the fourth output are allowed
+        long allowedOutputs = 0b1010L;
+        long[][] filtered = new long[OPERATIONS][];
+        long[][] unfiltered = new long[OPERATIONS][];
+        Random filteredRandom = new Random(68);
+        Random unfilteredRandom = new Random(69);
+        for (int i = 0; i < OPERATIONS; i++) {
+            filtered[i] = SpaceMiningOreGenerator.generateStacks(recipe, 8, 6000, filteredRandom, allowedOutputs);
+            unfiltered[i] = SpaceMiningOreGenerator.generateStacks(recipe, 8, 6000, unfilteredRandom);
+            assertEquals(0, filtered[i][0]);
+            assertEquals(0, filtered[i][2]);
+        }
+        assertSameDistribution(column(filtered, 1), column(unfiltered, 1), "output 1");
+        assertSameDistribution(column(filtered, 3), column(unfiltered, 3), "output 3");
+    }
+
+    /**
+     * Generate ores with the generator and with the old per-stack rolls and check that the number of stacks of each
+     * output has the same distribution
+     */
+    private static void assertMatchesPerStackRolls(IG_SpaceMiningRecipe recipe, int parallels, int bonusStackChance,
+            long seed) {
+        long[][] generated = new long[OPERATIONS][];
+        long[][] rolled = new long[OPERATIONS][];
+        Random generatorRandom = new Random(seed);
+        Random rollRandom = new Random(~seed);
+        for (int i = 0; i < OPERATIONS; i++) {
+            generated[i] = SpaceMiningOreGenerator
+                    .generateStacks(recipe, parallels, bonusStackChance, generatorRandom);
+            rolled[i] = rollEveryStack(recipe, parallels, bonusStackChance, rollRandom);
+        }
+        long[] generatedTotals = new long[OPERATIONS];
+        long[] rolledTotals = new long[OPERATIONS];
+        for (int i = 0; i < OPERATIONS; i++) {
+            generatedTotals[i] = Arrays.stream(generated[i]).sum();
+            rolledTotals[i] = Arrays.stream(rolled[i]).sum();
+        }
+        assertSameDistribution(generatedTotals, rolledTotals, "total stacks");
+        for (int output = 0; output < recipe.mOutputs.length; output++) {
+            if (recipe.mChances[output] == 0) {
+                assertTrue(Arrays.stream(column(generated, output)).allMatch(stacks -> stacks == 0));
+                continue;
+            }
+            assertSameDistribution(column(generated, output), column(rolled, output), "output " + output);
+        }
+    }
+
+    /**
+     * The ore generation of the miner before the generator existed: every stack up to minSize is guaranteed, every
+     * further stack up to maxSize is rolled with the bonus stack chance and each stack picks its output by the chances
+     * of the recipe
+     */
+    private static long[] rollEveryStack(IG_SpaceMiningRecipe recipe, int parallels, int bonusStackChance,
+            Random random) {
+        long[] stacks = new long[recipe.mOutputs.length];
+        int totalChance = Arrays.stream(recipe.mChances).sum();
+        for (int i = 0; i < recipe.maxSize * parallels; i++) {
+            if (i >= recipe.minSize * parallels && bonusStackChance <= random.nextInt(10000)) {
+                continue;
+            }
+            int roll = random.nextInt(totalChance);
+            int currentChance = 0;
+            for (int j = 0; j < recipe.mChances.length; j++) {
+                currentChance += recipe.mChances[j];
+                if (roll < currentChance) {
+                    stacks[j]++;
+                    break;
+                }
+            }
+        }
+        return stacks;
+    }
+
+    /**
+     * Check two samples with a chi-square test of homogeneity. Adjacent values are merged into cells until every cell
+     * holds enough samples
+     */
+    private static void assertSameDistribution(long[] first, long[] second, String name) {
+        int max = (int) Math.max(Arrays.stream(first).max().orElse(0), Arrays.stream(second).max().orElse(0));
+        long[] firstCounts = new long[max + 1];
+        long[] secondCounts = new long[max + 1];
+        for (long value : first) {
+            firstCounts[(int) value]++;
+        }
+        for (long value : second) {
+            secondCounts[(int) value]++;
+        }
+
+        double chiSquare = 0D;
+        int cells = 0;
+        long firstCell = 0;
+        long secondCell = 0;
+        for (int value = 0; value <= max; value++) {
+            firstCell += firstCounts[value];
+            secondCell += secondCounts[value];
+            if (firstCell + secondCell >= MIN_CELL_COUNT || value == max) {
+                // both samples have the same size, so the expected count of each sample is the mean of the cell
+                chiSquare += (double) (firstCell - secondCell) * (firstCell - secondCell) / (firstCell + secondCell);
+                cells++;
+                firstCell = 0;
+                secondCell = 0;
+            }
+        }
+        assertChiSquare(chiSquare, cells - 1, name);
+    }
+
+    /**
+     * Draw from the binomial sampler and check the frequencies against the exact probability mass function with a
+     * chi-square goodness of fit test
+     */
+    private static void assertBinomialMatchesPmf(int n, double p, long seed) {
+        long[] counts = new long[n + 1];
+        Random random = new Random(seed);
+        for (int i = 0; i < DRAWS; i++) {
+            counts[SpaceMiningOreGenerator.nextBinomial(random, n, p)]++;
+        }
+
+        double[] logFactorials = new double[n + 1];
+        for (int k = 1; k <= n; k++) {
+            logFactorials[k] = logFactorials[k - 1] + Math.log(k);
+        }
+        double chiSquare = 0D;
+        int cells = 0;
+        double expected = 0D;
+        long observed = 0;
+        for (int k = 0; k <= n; k++) {
+            double logPmf = logFactorials[n] - logFactorials[k]
+                    - logFactorials[n - k]
+                    + k * Math.log(p)
+                    + (n - k) * Math.log(1D - p);
+            expected += Math.exp(logPmf) * DRAWS;
+            observed += counts[k];
+            if (expected >= MIN_CELL_COUNT || k == n) {
+                chiSquare += (observed - expected) * (observed - expected) / expected;
+                cells++;
+                expected = 0D;
+                observed = 0;
+            }
+        }
+        assertChiSquare(chiSquare, cells - 1, "binomial n=" + n + " p=" + p);
+    }
+
+    /**
+     * Compare a chi-square statistic with the critical value of its distribution, which is approximated with the
+     * Wilson-Hilferty transformation
+     */
+    private static void assertChiSquare(double chiSquare, int degreesOfFreedom, String name) {
+        if (degreesOfFreedom <= 0) {
+            return;
+        }
+        double h = 2D / (9D * degreesOfFreedom);
+        double critical = degreesOfFreedom * Math.pow(1D - h + Z_CRITICAL * Math.sqrt(h), 3D);
+        assertTrue(
+                chiSquare < critical,
+                name + ": chi-square " + chiSquare + " exceeds " + critical + " at " + degreesOfFreedom + " dof");
+    }
+
+    private static long[] column(long[][] stacks, int output) {
+        return Arrays.stream(stacks).mapToLong(operation -> operation[output]).toArray();
+    }
+
+    private static IG_SpaceMiningRecipe createRecipe(int minSize, int maxSize, int... chances) {
+        ItemStack[] outputs = new ItemStack[chances.length];
+        for (int i = 0; i < chances.length; i++) {
+            outputs[i] = new ItemStack(ORE, 64, i);
+        }
+        return new IG_SpaceMiningRecipe(
+                false,
+                "test",
+                new ItemStack[] { new ItemStack(DRONE, 0, 0) },
+                outputs,
+                null,
+                chances,
+                20,
+                30_000,
+                100,
+                1,
+                0,
+                10,
+                minSize,
+                maxSize,
+                1);
+    }
+}
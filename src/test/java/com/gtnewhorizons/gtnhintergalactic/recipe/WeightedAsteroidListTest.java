@@ -0,0 +1,136 @@
+package com.gtnewhorizons.gtnhintergalactic.recipe;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
+
+import org.junit.jupiter.api.Test;
+
+import com.gtnewhorizons.gtnhintergalactic.recipe.SpaceMiningRecipes.WeightedAsteroidList;
+
+/**
+ * Checks that the alias table of {@link WeightedAsteroidList} draws every asteroid with the chance recipeWeight /
+ * totalWeight, where weights below zero count as zero.
+ */
+class WeightedAsteroidListTest {
+
+    /** Number of draws of the frequency tests */
+    private static final int DRAWS = 1_000_000;
+    /** Critical values of the chi-square distribution at p = 0.001, indexed by degrees of freedom */
+    private static final double[] CHI_SQUARE_CRITICAL = { 0D, 10.828, 13.816, 16.266, 18.467, 20.515, 22.458,
+            24.322, 26.124, 27.877, 29.588 };
+
+    private static final Item DRONE = new Item();
+    private static final Item ORE = new Item();
+
+    @Test
+    void drawsMatchNormalizedWeights() {
+        assertDrawsMatchWeights(new int[] { 5, 0, -3, 1, 10, 4 }, 42);
+    }
+
+    @Test
+    void drawsMatchEqualWeights() {
+        assertDrawsMatchWeights(new int[] { 7, 7, 7, 7, 7 }, 43);
+    }
+
+    @Test
+    void drawsMatchSkewedWeights() {
+        assertDrawsMatchWeights(new int[] { 1, 1000, -1000, 0, 3, 250, 0, 1, 64, 2, 90 }, 44);
+    }
+
+    @Test
+    void singlePositiveWeightIsAlwaysDrawn() {
+        WeightedAsteroidList list = createList(0, -5, 3, 0);
+        Random random = new Random(45);
+        for (int i = 0; i < 10_000; i++) {
+            assertEquals(2, list.getRandomIndex(random));
+        }
+    }
+
+    @Test
+    void totalWeightIgnoresNegativeWeights() {
+        WeightedAsteroidList list = createList(5, 0, -3, 1, 10, 4);
+        assertEquals(20, list.totalWeight);
+    }
+
+    @Test
+    void emptyListDrawsNothing() {
+        WeightedAsteroidList list = createList();
+        assertEquals(-1, list.getRandomIndex(new Random(46)));
+        assertNull(list.getRandom(new Random(46)));
+    }
+
+    @Test
+    void listWithoutPositiveWeightsDrawsNothing() {
+        WeightedAsteroidList list = createList(0, -1, -20);
+        assertEquals(0, list.totalWeight);
+        assertEquals(-1, list.getRandomIndex(new Random(47)));
+        assertNull(list.getRandom(new Random(47)));
+    }
+
+    /**
+     * Draw from a list with the given weights and check the frequencies with a chi-square goodness of fit test.
+     * Asteroids with a weight of zero or less must never be drawn
+     */
+    private static void assertDrawsMatchWeights(int[] weights, long seed) {
+        WeightedAsteroidList list = createList(weights);
+        long[] counts = new long[weights.length];
+        Random random = new Random(seed);
+        for (int i = 0; i < DRAWS; i++) {
+            counts[list.getRandomIndex(random)]++;
+        }
+
+        long totalWeight = Arrays.stream(weights).filter(w -> w > 0).sum();
+        double chiSquare = 0D;
+        int categories = 0;
+        for (int i = 0; i < weights.length; i++) {
+            if (weights[i] <= 0) {
+                assertEquals(0, counts[i], "Asteroid " + i + " with weight " + weights[i] + " was drawn");
+                continue;
+            }
+            double expected = (double) DRAWS * weights[i] / totalWeight;
+            chiSquare += (counts[i] - expected) * (counts[i] - expected) / expected;
+            categories++;
+        }
+        double critical = CHI_SQUARE_CRITICAL[categories - 1];
+        assertTrue(
+                chiSquare < critical,
+                "Chi-square " + chiSquare
+                        + " exceeds "
+                        + critical
+                        + ", counts "
+                        + Arrays.toString(counts)
+                        + " for weights "
+                        + Arrays.toString(weights));
+    }
+
+    private static WeightedAsteroidList createList(int... weights) {
+        return new WeightedAsteroidList(IntStream.range(0, weights.length).mapToObj(i -> createRecipe(i, weights[i])));
+    }
+
+    private static IG_SpaceMiningRecipe createRecipe(int index, int weight) {
+        return new IG_SpaceMiningRecipe(
+                false,
+                "test" + index,
+                new ItemStack[] { new ItemStack(DRONE, 0, 0) },
+                new ItemStack[] { new ItemStack(ORE, 64, index) },
+                null,
+                new int[] { 10000 },
+                20,
+                30_000,
+                100,
+                1,
+                0,
+                10,
+                10,
+                20,
+                weight);
+    }
+}